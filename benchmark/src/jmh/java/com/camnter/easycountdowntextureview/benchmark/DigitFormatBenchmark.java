@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2016 CaMnter yuanyu.camnter@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.camnter.easycountdowntextureview.benchmark;
+
+import com.camnter.easycountdowntextureview.EasyDigitCache;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Description：DigitFormatBenchmark
+ * Created by：CaMnter
+ *
+ * Turning the three values of one tick into digits.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DigitFormatBenchmark {
+
+    private static final String LESS_THAN_TEN_FORMAT = "%02d";
+
+    // ASCII digits and Arabic-Indic digits
+    @Param({ "en-US", "ar-EG" })
+    public String languageTag;
+
+    private Locale locale;
+    private EasyDigitCache digitCache;
+    private final char[] digitBuffer = new char[EasyDigitCache.MAX_DIGITS];
+
+    private int second;
+
+
+    @Setup
+    public void setup() {
+        this.locale = Locale.forLanguageTag(this.languageTag);
+        this.digitCache = EasyDigitCache.obtain(this.locale);
+    }
+
+
+    private int nextSecond() {
+        this.second = this.second == 0 ? 59 : this.second - 1;
+        return this.second;
+    }
+
+
+    @Benchmark
+    public void stringFormat(final Blackhole blackhole) {
+        final int second = this.nextSecond();
+        blackhole.consume(String.format(this.locale, LESS_THAN_TEN_FORMAT, 125));
+        blackhole.consume(String.format(this.locale, LESS_THAN_TEN_FORMAT, 59 - second));
+        blackhole.consume(String.format(this.locale, LESS_THAN_TEN_FORMAT, second));
+    }
+
+
+    @Benchmark
+    public void digitCache(final Blackhole blackhole) {
+        final int second = this.nextSecond();
+        final char[] twoDigits = this.digitCache.getTwoDigits();
+        // more than two digits go through the buffer
+        blackhole.consume(this.digitCache.fill(125, this.digitBuffer));
+        blackhole.consume(twoDigits[this.digitCache.indexOf(59 - second)]);
+        blackhole.consume(twoDigits[this.digitCache.indexOf(second)]);
+    }
+
+}
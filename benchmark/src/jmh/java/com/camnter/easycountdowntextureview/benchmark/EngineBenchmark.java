@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2016 CaMnter yuanyu.camnter@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.camnter.easycountdowntextureview.benchmark;
+
+import com.camnter.easycountdowntextureview.EasyCountDownEngine;
+import com.camnter.easycountdowntextureview.EasyTime;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Description：EngineBenchmark
+ * Created by：CaMnter
+ *
+ * State transitions and ticks of one {@link EasyCountDownEngine} on a fake clock.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EngineBenchmark {
+
+    // long enough to never complete during a run
+    private static final long TIME = 1000 * EasyTime.ONE_DAY;
+
+    private FakeClock clock;
+    private EasyCountDownEngine engine;
+
+
+    @Setup
+    public void setup() {
+        this.clock = new FakeClock(0L);
+        this.engine = new EasyCountDownEngine(this.clock);
+        this.engine.setTime(TIME);
+    }
+
+
+    @Benchmark
+    public void startStop(final Blackhole blackhole) {
+        blackhole.consume(this.engine.start());
+        this.clock.advance(1L);
+        blackhole.consume(this.engine.stop());
+        this.engine.setTime(TIME);
+    }
+
+
+    @Benchmark
+    public void pauseResume(final Blackhole blackhole) {
+        if (!this.engine.isRunning()) this.engine.start();
+        blackhole.consume(this.engine.pause());
+        this.clock.advance(1L);
+        blackhole.consume(this.engine.resume());
+    }
+
+
+    @Benchmark
+    public long tick() {
+        if (!this.engine.isRunning()) this.engine.start();
+        this.clock.advance(EasyTime.ONE_SECOND);
+        return this.engine.onTick(this.clock.now());
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2016 CaMnter yuanyu.camnter@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.camnter.easycountdowntextureview.benchmark;
+
+import com.camnter.easycountdowntextureview.EasyClock;
+import com.camnter.easycountdowntextureview.EasyCountDownEngine;
+import com.camnter.easycountdowntextureview.EasyTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Description：EngineStressBenchmark
+ * Created by：CaMnter
+ *
+ * Many threads hammer start/stop and pause/resume of one {@link EasyCountDownEngine}
+ * while another one ticks it, measuring the contended compare-and-set. Whether the
+ * engine counts the time right under the same load is checked by EngineStressTest.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EngineStressBenchmark {
+
+    // long enough to never complete during a run
+    private static final long TIME = 1000 * EasyTime.ONE_DAY;
+
+
+    /**
+     * Moved by the tick thread only, read by every thread
+     */
+    static final class SharedClock implements EasyClock {
+
+        private final AtomicLong now = new AtomicLong();
+
+
+        @Override
+        public long now() {
+            return this.now.get();
+        }
+
+
+        long advance(final long millis) {
+            return this.now.addAndGet(millis);
+        }
+
+    }
+
+
+    private SharedClock clock;
+    private EasyCountDownEngine engine;
+
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        this.clock = new SharedClock();
+        this.engine = new EasyCountDownEngine(this.clock);
+        this.engine.setTime(TIME);
+    }
+
+
+    @Benchmark
+    @Group("lifecycle")
+    @GroupThreads(2)
+    public boolean startStop() {
+        this.engine.start();
+        return this.engine.stop();
+    }
+
+
+    @Benchmark
+    @Group("lifecycle")
+    @GroupThreads(2)
+    public boolean pauseResume() {
+        this.engine.pause();
+        return this.engine.resume();
+    }
+
+
+    @Benchmark
+    @Group("lifecycle")
+    @GroupThreads(1)
+    public long tick() {
+        return this.engine.onTick(this.clock.advance(1L));
+    }
+
+}
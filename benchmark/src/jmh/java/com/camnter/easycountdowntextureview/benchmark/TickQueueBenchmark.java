@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2016 CaMnter yuanyu.camnter@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.camnter.easycountdowntextureview.benchmark;
+
+import com.camnter.easycountdowntextureview.EasyCountDownEngine;
+import com.camnter.easycountdowntextureview.EasyTickQueue;
+import com.camnter.easycountdowntextureview.EasyTime;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Description：TickQueueBenchmark
+ * Created by：CaMnter
+ *
+ * One wakeup of the ticker thread: an {@link EasyTickQueue} full of engines
+ * on a fake clock, all due in the same pass.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TickQueueBenchmark {
+
+    // long enough to never complete during a run
+    private static final long TIME = 1000 * EasyTime.ONE_DAY;
+
+    @Param({ "10", "1000", "10000" })
+    public int timers;
+
+    private FakeClock clock;
+    private EasyTickQueue tickQueue;
+
+
+    @Setup
+    public void setup() {
+        this.clock = new FakeClock(0L);
+        this.tickQueue = new EasyTickQueue();
+        for (int i = 0; i < this.timers; i++) {
+            final EasyCountDownEngine engine = new EasyCountDownEngine(this.clock);
+            // different deadlines, the same second boundaries
+            engine.setTime(TIME + i * EasyTime.ONE_SECOND);
+            engine.start();
+            this.tickQueue.add(engine, this.clock.now());
+        }
+    }
+
+
+    @Benchmark
+    public long dispatch() {
+        this.clock.advance(EasyTime.ONE_SECOND);
+        return this.tickQueue.dispatch(this.clock.now());
+    }
+
+}
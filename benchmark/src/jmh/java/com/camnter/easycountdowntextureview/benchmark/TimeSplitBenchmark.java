@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2016 CaMnter yuanyu.camnter@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.camnter.easycountdowntextureview.benchmark;
+
+import com.camnter.easycountdowntextureview.EasyTime;
+import java.util.Calendar;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Description：TimeSplitBenchmark
+ * Created by：CaMnter
+ *
+ * Splitting the time left of one tick into hours, minutes and seconds.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TimeSplitBenchmark {
+
+    private static final int DURATION_COUNT = 1024;
+
+    private final long[] durations = new long[DURATION_COUNT];
+    private int index;
+
+    // the way the view split the time before EasyTime
+    private Calendar calendar;
+
+
+    @Setup
+    public void setup() {
+        this.calendar = Calendar.getInstance(TimeZone.getTimeZone("GMT+00:00"));
+        for (int i = 0; i < DURATION_COUNT; i++) {
+            // up to three days, in whole seconds
+            this.durations[i] = (i * 7919L % (3 * 24 * 3600)) * EasyTime.ONE_SECOND;
+        }
+    }
+
+
+    private long nextDuration() {
+        this.index = (this.index + 1) & (DURATION_COUNT - 1);
+        return this.durations[this.index];
+    }
+
+
+    @Benchmark
+    public void calendar(final Blackhole blackhole) {
+        this.calendar.setTimeInMillis(this.nextDuration());
+        blackhole.consume(this.calendar.get(Calendar.HOUR_OF_DAY));
+        blackhole.consume(this.calendar.get(Calendar.MINUTE));
+        blackhole.consume(this.calendar.get(Calendar.SECOND));
+    }
+
+
+    @Benchmark
+    public void easyTime(final Blackhole blackhole) {
+        final long millis = this.nextDuration();
+        blackhole.consume(EasyTime.totalHours(millis));
+        blackhole.consume(EasyTime.minutesOfHour(millis));
+        blackhole.consume(EasyTime.secondsOfMinute(millis));
+    }
+
+}
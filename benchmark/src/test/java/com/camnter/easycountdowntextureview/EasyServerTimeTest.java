@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2016 CaMnter yuanyu.camnter@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.camnter.easycountdowntextureview;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Description：EasyServerTimeTest
+ * Created by：CaMnter
+ *
+ * {@link EasyServerTime} on fake monotonic and wall clocks: both syncs, the skew,
+ * the monotonic deadline of a server time, a negative round trip and a stale response.
+ *
+ * ./gradlew :benchmark:test
+ */
+public class EasyServerTimeTest {
+
+    private static final long SERVER_TIME = 1500000000000L;
+
+    private FakeClock monotonicClock;
+    private FakeClock wallClock;
+    private EasyServerTime serverTime;
+
+
+    @Before
+    public void setUp() {
+        this.monotonicClock = new FakeClock(10000L);
+        // the device is a minute behind the server
+        this.wallClock = new FakeClock(SERVER_TIME - EasyTime.ONE_MINUTE);
+        this.serverTime = new EasyServerTime(this.monotonicClock, this.wallClock);
+    }
+
+
+    /**
+     * Before the first sync the local wall clock is the server time
+     */
+    @Test
+    public void unsynced() {
+        assertFalse(this.serverTime.isSynced());
+        assertEquals(this.wallClock.now(), this.serverTime.now());
+        assertEquals(0L, this.serverTime.getSkew());
+        assertEquals(this.monotonicClock.now() + 5000L,
+            this.serverTime.toMonotonic(this.wallClock.now() + 5000L));
+    }
+
+
+    /**
+     * The server time was taken halfway through the round trip, then moves with the
+     * monotonic clock
+     */
+    @Test
+    public void syncRoundTrip() {
+        this.serverTime.sync(SERVER_TIME, 200L);
+        assertTrue(this.serverTime.isSynced());
+        assertEquals(SERVER_TIME + 100L, this.serverTime.now());
+        this.monotonicClock.advance(1000L);
+        assertEquals(SERVER_TIME + 1100L, this.serverTime.now());
+    }
+
+
+    @Test
+    public void syncSentAtReceivedAt() {
+        this.serverTime.sync(SERVER_TIME, 9700L, 9900L);
+        // 100 millis after the response was received
+        assertEquals(SERVER_TIME + 100L + 100L, this.serverTime.now());
+    }
+
+
+    /**
+     * A jump of the device clock moves the skew, not the server time
+     */
+    @Test
+    public void skew() {
+        this.serverTime.sync(SERVER_TIME, 0L);
+        assertEquals(EasyTime.ONE_MINUTE, this.serverTime.getSkew());
+        this.wallClock.advance(EasyTime.ONE_HOUR);
+        assertEquals(SERVER_TIME, this.serverTime.now());
+        assertEquals(EasyTime.ONE_MINUTE - EasyTime.ONE_HOUR, this.serverTime.getSkew());
+    }
+
+
+    /**
+     * A server deadline maps to the monotonic time it is reached at, past ones too
+     */
+    @Test
+    public void toMonotonic() {
+        this.serverTime.sync(SERVER_TIME, 0L);
+        final long deadline = SERVER_TIME + EasyTime.ONE_HOUR;
+        final long monotonicDeadline = this.serverTime.toMonotonic(deadline);
+        assertEquals(this.monotonicClock.now() + EasyTime.ONE_HOUR, monotonicDeadline);
+        this.monotonicClock.advance(EasyTime.ONE_HOUR);
+        assertEquals(deadline, this.serverTime.now());
+        assertEquals(monotonicDeadline, this.serverTime.toMonotonic(deadline));
+        assertEquals(this.monotonicClock.now() - 1000L,
+            this.serverTime.toMonotonic(deadline - 1000L));
+    }
+
+
+    /**
+     * A negative round trip, sentAt after receivedAt, counts as none
+     */
+    @Test
+    public void negativeRoundTrip() {
+        this.serverTime.sync(SERVER_TIME, -200L);
+        assertEquals(SERVER_TIME, this.serverTime.now());
+        this.serverTime.sync(SERVER_TIME + 1000L, 10300L, 10000L);
+        assertEquals(SERVER_TIME + 1000L, this.serverTime.now());
+    }
+
+
+    /**
+     * A response received before the last synced one is stale, the newer sync stays
+     */
+    @Test
+    public void outOfOrderReceivedAt() {
+        this.serverTime.sync(SERVER_TIME, 9800L, 10000L);
+        this.serverTime.sync(SERVER_TIME - EasyTime.ONE_HOUR, 9000L, 9200L);
+        assertEquals(SERVER_TIME + 100L, this.serverTime.now());
+        // received at the same time is not older, the later call wins
+        this.serverTime.sync(SERVER_TIME + 1000L, 10000L, 10000L);
+        assertEquals(SERVER_TIME + 1000L, this.serverTime.now());
+    }
+
+}
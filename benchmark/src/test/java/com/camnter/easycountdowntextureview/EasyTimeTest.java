@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2016 CaMnter yuanyu.camnter@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.camnter.easycountdowntextureview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Description：EasyTimeTest
+ * Created by：CaMnter
+ *
+ * The boundaries of {@link EasyTime} on the plain JVM: zero, a millisecond, a second,
+ * 59:59, a day, the second day, two days, and the rounding up at every unit.
+ *
+ * ./gradlew :benchmark:test
+ */
+public class EasyTimeTest {
+
+    private static final long[] UNITS = {
+        EasyTime.ONE_SECOND, EasyTime.ONE_MINUTE, EasyTime.ONE_HOUR, EasyTime.ONE_DAY
+    };
+
+
+    /**
+     * Zero and negative durations split into zeros and round up to nothing
+     */
+    @Test
+    public void zero() {
+        for (long millis : new long[] { 0L, -1L, -EasyTime.ONE_DAY, Long.MIN_VALUE }) {
+            assertSplit(millis, 0, 0, 0, 0, 0);
+            assertEquals("total hours of " + millis, 0, EasyTime.totalHours(millis));
+            assertEquals("ceil seconds of " + millis, 0, EasyTime.ceilSeconds(millis));
+            for (long unit : UNITS) {
+                assertEquals("ceil " + unit + " of " + millis, 0,
+                    EasyTime.ceilUnits(millis, unit));
+            }
+        }
+    }
+
+
+    /**
+     * A millisecond shows as a whole second, minute, hour or day
+     */
+    @Test
+    public void oneMillisecond() {
+        assertSplit(1L, 0, 0, 0, 0, 1);
+        assertEquals("ceil seconds of 1 ms", 1, EasyTime.ceilSeconds(1L));
+        for (long unit : UNITS) {
+            assertEquals("ceil " + unit + " of 1 ms", unit, EasyTime.ceilUnits(1L, unit));
+        }
+    }
+
+
+    @Test
+    public void oneSecond() {
+        final long second = EasyTime.ONE_SECOND;
+        assertSplit(second - 1, 0, 0, 0, 0, 999);
+        assertSplit(second, 0, 0, 0, 1, 0);
+        assertSplit(second + 1, 0, 0, 0, 1, 1);
+        assertEquals("ceil seconds of 999 ms", 1, EasyTime.ceilSeconds(second - 1));
+        assertEquals("ceil seconds of 1 s", 1, EasyTime.ceilSeconds(second));
+        assertEquals("ceil seconds of 1001 ms", 2, EasyTime.ceilSeconds(second + 1));
+    }
+
+
+    /**
+     * 59:59 is the last second before the first hour
+     */
+    @Test
+    public void lastHourSecond() {
+        final long millis = 59 * EasyTime.ONE_MINUTE + 59 * EasyTime.ONE_SECOND;
+        assertSplit(millis, 0, 0, 59, 59, 0);
+        assertSplit(millis + 999, 0, 0, 59, 59, 999);
+        assertSplit(millis + EasyTime.ONE_SECOND, 0, 1, 0, 0, 0);
+        assertEquals("total hours of 59:59.999", 0, EasyTime.totalHours(millis + 999));
+        assertEquals("ceil seconds of 59:59.001", 3600, EasyTime.ceilSeconds(millis + 1));
+        assertEquals("ceil minutes of 59:59.001", EasyTime.ONE_HOUR,
+            EasyTime.ceilUnits(millis + 1, EasyTime.ONE_MINUTE));
+    }
+
+
+    /**
+     * 24 hours are a day and no hours of it, a millisecond less is 23:59:59.999
+     */
+    @Test
+    public void oneDay() {
+        final long day = EasyTime.ONE_DAY;
+        assertSplit(day, 1, 0, 0, 0, 0);
+        assertSplit(day - 1, 0, 23, 59, 59, 999);
+        assertEquals("total hours of 24 h", 24, EasyTime.totalHours(day));
+        assertEquals("total hours of 24 h - 1 ms", 23, EasyTime.totalHours(day - 1));
+        assertEquals("ceil seconds of 24 h - 1 ms", 86400, EasyTime.ceilSeconds(day - 1));
+        assertEquals("ceil hours of 24 h - 1 ms", day,
+            EasyTime.ceilUnits(day - 1, EasyTime.ONE_HOUR));
+    }
+
+
+    /**
+     * Between 24 and 48 hours the hours of the day start over, the total hours go on
+     */
+    @Test
+    public void secondDay() {
+        final long millis = EasyTime.ONE_DAY + 12 * EasyTime.ONE_HOUR + 30 * EasyTime.ONE_MINUTE +
+            15 * EasyTime.ONE_SECOND + 250;
+        assertSplit(millis, 1, 12, 30, 15, 250);
+        assertEquals("total hours of 36:30:15.250", 36, EasyTime.totalHours(millis));
+        assertSplit(EasyTime.ONE_DAY + 1, 1, 0, 0, 0, 1);
+        assertSplit(2 * EasyTime.ONE_DAY - 1, 1, 23, 59, 59, 999);
+        assertEquals("total hours of 48 h - 1 ms", 47,
+            EasyTime.totalHours(2 * EasyTime.ONE_DAY - 1));
+        assertEquals("ceil days of 24 h + 1 ms", 2 * EasyTime.ONE_DAY,
+            EasyTime.ceilUnits(EasyTime.ONE_DAY + 1, EasyTime.ONE_DAY));
+    }
+
+
+    @Test
+    public void twoDays() {
+        final long millis = 2 * EasyTime.ONE_DAY;
+        assertSplit(millis, 2, 0, 0, 0, 0);
+        assertEquals("total hours of 48 h", 48, EasyTime.totalHours(millis));
+        assertEquals("ceil seconds of 48 h", 172800, EasyTime.ceilSeconds(millis));
+    }
+
+
+    /**
+     * A whole number of units stays, a millisecond over rounds up to the next one,
+     * a millisecond under rounds up to it
+     */
+    @Test
+    public void ceilAtEveryUnit() {
+        for (long unit : UNITS) {
+            for (long units = 1; units <= 3; units++) {
+                final long millis = units * unit;
+                assertEquals("ceil " + unit + " of " + millis, millis,
+                    EasyTime.ceilUnits(millis, unit));
+                assertEquals("ceil " + unit + " of " + (millis - 1), millis,
+                    EasyTime.ceilUnits(millis - 1, unit));
+                assertEquals("ceil " + unit + " of " + (millis + 1), millis + unit,
+                    EasyTime.ceilUnits(millis + 1, unit));
+                assertEquals("ceil seconds of " + (millis - 1),
+                    EasyTime.ceilUnits(millis - 1, EasyTime.ONE_SECOND),
+                    EasyTime.ceilSeconds(millis - 1) * EasyTime.ONE_SECOND);
+            }
+        }
+    }
+
+
+    /**
+     * Every split adds up again, around every unit boundary of the first 49 hours
+     */
+    @Test
+    public void splitRoundTrip() {
+        for (long unit : UNITS) {
+            for (long boundary = 0; boundary <= 49 * EasyTime.ONE_HOUR; boundary += unit) {
+                for (long millis = boundary - 2; millis <= boundary + 2; millis++) {
+                    if (millis < 0) continue;
+                    final long sum = EasyTime.days(millis) * EasyTime.ONE_DAY +
+                        EasyTime.hoursOfDay(millis) * EasyTime.ONE_HOUR +
+                        EasyTime.minutesOfHour(millis) * EasyTime.ONE_MINUTE +
+                        EasyTime.secondsOfMinute(millis) * EasyTime.ONE_SECOND +
+                        EasyTime.millisOfSecond(millis);
+                    assertEquals(millis + " ms split", millis, sum);
+                    assertEquals("total hours of " + millis,
+                        EasyTime.days(millis) * 24 + EasyTime.hoursOfDay(millis),
+                        EasyTime.totalHours(millis));
+                }
+            }
+        }
+    }
+
+
+    private static void assertSplit(final long millis, final long days, final int hours,
+                                    final int minutes, final int seconds,
+                                    final int millisOfSecond) {
+        final String split = EasyTime.days(millis) + "d " + EasyTime.hoursOfDay(millis) + "h " +
+            EasyTime.minutesOfHour(millis) + "m " + EasyTime.secondsOfMinute(millis) + "s " +
+            EasyTime.millisOfSecond(millis) + "ms";
+        assertTrue(millis + " ms split into " + split,
+            EasyTime.days(millis) == days && EasyTime.hoursOfDay(millis) == hours &&
+                EasyTime.minutesOfHour(millis) == minutes &&
+                EasyTime.secondsOfMinute(millis) == seconds &&
+                EasyTime.millisOfSecond(millis) == millisOfSecond);
+    }
+
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright (C) 2016 CaMnter yuanyu.camnter@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.camnter.easycountdowntextureview;
+
+import android.support.annotation.NonNull;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Description：EngineStressTest
+ * Created by：CaMnter
+ *
+ * Many threads hammer start/stop and pause/resume of one {@link EasyCountDownEngine}
+ * while another one ticks it. The time the engine counted down must fit into the time
+ * the clock moved and cover what its ticks already saw, and a count down is registered
+ * exactly while it runs.
+ *
+ * ./gradlew :benchmark:test
+ */
+public class EngineStressTest {
+
+    // long enough to never complete during a run
+    private static final long TIME = 1000 * EasyTime.ONE_DAY;
+    private static final int ROUNDS = 200000;
+
+
+    /**
+     * Moved by the tick thread only, read by every thread
+     */
+    static final class SharedClock implements EasyClock {
+
+        private final AtomicLong now = new AtomicLong();
+
+
+        @Override
+        public long now() {
+            return this.now.get();
+        }
+
+
+        long advance(final long millis) {
+            return this.now.addAndGet(millis);
+        }
+
+    }
+
+
+    /**
+     * The ticker of a count down, remembers what is registered
+     */
+    static final class RecordingRegistry implements EasyTickRegistry {
+
+        private final Set<EasyTickable> registered = new HashSet<>();
+
+
+        @Override
+        public synchronized void register(@NonNull final EasyTickable tickable) {
+            this.registered.add(tickable);
+        }
+
+
+        @Override
+        public synchronized void unregister(@NonNull final EasyTickable tickable) {
+            this.registered.remove(tickable);
+        }
+
+
+        synchronized boolean isRegistered(@NonNull final EasyTickable tickable) {
+            return this.registered.contains(tickable);
+        }
+
+    }
+
+
+    @Test
+    public void countedTimeFitsTheClock() throws InterruptedException {
+        final SharedClock clock = new SharedClock();
+        final EasyCountDownEngine engine = new EasyCountDownEngine(clock);
+        engine.setTime(TIME);
+        // the least time left a tick saw, written by the tick thread only
+        final AtomicLong leastTimeLeft = new AtomicLong(TIME);
+        engine.setCallback(new EasyCountDownEngine.Callback() {
+            @Override
+            public void onTick(@NonNull final EasyCountDownEngine engine, final long timeLeft) {
+                if (timeLeft < leastTimeLeft.get()) leastTimeLeft.set(timeLeft);
+            }
+
+
+            @Override
+            public void onCompleted(@NonNull final EasyCountDownEngine engine) {
+                // long enough to never complete
+            }
+        });
+
+        run(new Runnable() {
+            @Override
+            public void run() {
+                engine.start();
+                engine.stop();
+            }
+        }, new Runnable() {
+            @Override
+            public void run() {
+                engine.pause();
+                engine.resume();
+            }
+        }, new Runnable() {
+            @Override
+            public void run() {
+                engine.onTick(clock.advance(1L));
+            }
+        });
+
+        engine.stop();
+        final long counted = TIME - engine.getTimeLeft();
+        final long elapsed = clock.now();
+        final long seen = TIME - leastTimeLeft.get();
+        assertTrue("counted " + counted + " ms while the clock moved " + elapsed + " ms",
+            counted <= elapsed);
+        assertTrue("counted " + counted + " ms while the ticks saw " + seen + " ms counted",
+            counted >= seen);
+    }
+
+
+    @Test
+    public void registeredWhileRunning() throws InterruptedException {
+        final SharedClock clock = new SharedClock();
+        final RecordingRegistry registry = new RecordingRegistry();
+        final EasyTickable tickable = new EasyTickable() {
+            @Override
+            public long onTick(final long now) {
+                return TICK_STOP;
+            }
+        };
+        final EasyCountDownController controller = new EasyCountDownController(clock,
+            tickable, new NoHost(registry), new NoListener());
+        controller.setTime(TIME);
+        controller.start();
+
+        run(new Runnable() {
+            @Override
+            public void run() {
+                controller.stop();
+                controller.start();
+            }
+        }, new Runnable() {
+            @Override
+            public void run() {
+                controller.pause();
+                controller.resume();
+            }
+        }, new Runnable() {
+            @Override
+            public void run() {
+                controller.onTick(clock.advance(1L));
+            }
+        });
+
+        assertEquals("registered while running " + controller.isRunning(),
+            controller.isRunning(), registry.isRegistered(tickable));
+        controller.stop();
+        assertTrue("registered after stop", !registry.isRegistered(tickable));
+    }
+
+
+    /**
+     * Two threads of each lifecycle pair and one ticking thread, all released at once
+     */
+    private static void run(@NonNull final Runnable lifecycle,
+                            @NonNull final Runnable pauseResume,
+                            @NonNull final Runnable tick) throws InterruptedException {
+        final Runnable[] actions = { lifecycle, lifecycle, pauseResume, pauseResume, tick };
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final Thread[] threads = new Thread[actions.length];
+        for (int i = 0; i < actions.length; i++) {
+            final Runnable action = actions[i];
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        startLatch.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int round = 0; round < ROUNDS; round++) {
+                        action.run();
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        startLatch.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+
+    static final class NoHost implements EasyCountDownController.Host {
+
+        private final EasyTickRegistry ticker;
+
+
+        NoHost(@NonNull final EasyTickRegistry ticker) {
+            this.ticker = ticker;
+        }
+
+
+        @Override
+        public void onTimeReset() {
+        }
+
+
+        @Override
+        public void onTimeChanged(final long timeLeft, final boolean frameTick) {
+        }
+
+
+        @NonNull
+        @Override
+        public EasyTickRegistry getTicker() {
+            return this.ticker;
+        }
+
+    }
+
+
+    static final class NoListener implements EasyCountDownController.Listener {
+
+        @Override
+        public void onCountDownStart() {
+        }
+
+
+        @Override
+        public void onCountDownTimeError() {
+        }
+
+
+        @Override
+        public void onCountDownStop(final long millisInFuture) {
+        }
+
+
+        @Override
+        public void resetTick() {
+        }
+
+
+        @Override
+        public void postTick(final long timeLeft) {
+        }
+
+
+        @Override
+        public void postCompleted() {
+        }
+
+
+        @Override
+        public boolean hasTickListener() {
+            return false;
+        }
+
+    }
+
+}
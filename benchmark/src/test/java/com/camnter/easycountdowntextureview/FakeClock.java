@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2016 CaMnter yuanyu.camnter@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.camnter.easycountdowntextureview;
+
+/**
+ * Description：FakeClock
+ * Created by：CaMnter
+ *
+ * A clock that only moves when told to, so a test controls every tick.
+ */
+final class FakeClock implements EasyClock {
+
+    private long now;
+
+
+    FakeClock(final long now) {
+        this.now = now;
+    }
+
+
+    @Override
+    public long now() {
+        return this.now;
+    }
+
+
+    void advance(final long millis) {
+        this.now += millis;
+    }
+
+}
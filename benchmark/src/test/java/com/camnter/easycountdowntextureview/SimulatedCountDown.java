@@ -0,0 +1,267 @@
+/*
+ * Copyright (C) 2016 CaMnter yuanyu.camnter@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.camnter.easycountdowntextureview;
+
+import android.support.annotation.NonNull;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Description：SimulatedCountDown
+ * Created by：CaMnter
+ *
+ * A count down view without Android: the real {@link EasyCountDownController} with
+ * a virtual surface that checks every draw. A draw must show the deadline the count
+ * down started with, rounded like the views round it, never count up, and show a new
+ * unit at most the max lag of the simulation after it began.
+ */
+final class SimulatedCountDown implements EasyTickable, EasyCountDownController.Host,
+    EasyCountDownController.Listener {
+
+    private final Simulation simulation;
+    private final EasyCountDownController controller;
+
+    private boolean tickListener = false;
+
+    // the deadline set by the last start or resume, surface loss must not move it
+    private long expectedDeadline = 0L;
+    private long runningSince = 0L;
+
+    private long lastDrawTime = -1L;
+    private long lastDrawnTimeLeft = Long.MAX_VALUE;
+    private boolean lastFrameTick = false;
+    private int drawCount = 0;
+    private long completedTime = -1L;
+    private int completedCount = 0;
+    private int startCount = 0;
+    private int timeErrorCount = 0;
+
+    // the drawn units, only if recorded
+    private long[] drawnUnits;
+
+
+    SimulatedCountDown(@NonNull final Simulation simulation, final long timeMillis) {
+        this.simulation = simulation;
+        this.controller = new EasyCountDownController(simulation.clock, this, this, this);
+        this.controller.setTime(timeMillis);
+    }
+
+
+    @NonNull
+    EasyCountDownController getController() {
+        return this.controller;
+    }
+
+
+    @NonNull
+    EasyCountDownEngine getEngine() {
+        return this.controller.getEngine();
+    }
+
+
+    void recordDraws() {
+        this.drawnUnits = new long[16];
+    }
+
+
+    void setTickListener(final boolean tickListener) {
+        this.tickListener = tickListener;
+        this.controller.refitTickListener();
+    }
+
+
+    /**
+     * The surface is there, like onSurfaceTextureAvailable. The first one starts
+     */
+    void attach() {
+        this.redrawn();
+        this.controller.attach();
+    }
+
+
+    /**
+     * The surface is gone, like onSurfaceTextureDestroyed
+     */
+    void detach() {
+        this.controller.detach();
+    }
+
+
+    void setHidden(final boolean hidden) {
+        if (!hidden) this.redrawn();
+        this.controller.setHidden(hidden);
+    }
+
+
+    private void redrawn() {
+        this.runningSince = this.simulation.clock.now();
+        this.lastDrawTime = -1L;
+    }
+
+
+    boolean isRegistered() {
+        return this.simulation.tickQueue.contains(this);
+    }
+
+
+    @Override
+    public long onTick(final long now) {
+        return this.controller.onTick(now);
+    }
+
+
+    @Override
+    public void onTimeReset() {
+        // the views draw zeros, nothing to check
+    }
+
+
+    /**
+     * The virtual surface
+     */
+    @Override
+    public void onTimeChanged(final long timeLeft, final boolean frameTick) {
+        final EasyCountDownEngine engine = this.controller.getEngine();
+        final long now = engine.getClock().now();
+        final long tickInterval = engine.getTickInterval();
+        final long exactTimeLeft = Math.max(0L, this.expectedDeadline - now);
+        assertEquals("drew at " + now + ", deadline " + this.expectedDeadline,
+            frameTick ? exactTimeLeft : EasyTime.ceilUnits(exactTimeLeft, tickInterval),
+            timeLeft);
+        assertTrue("counted up from " + this.lastDrawnTimeLeft + " to " + timeLeft +
+            " ms at " + now, timeLeft <= this.lastDrawnTimeLeft);
+
+        final long lateness;
+        if (this.lastDrawTime >= 0 && this.lastFrameTick) {
+            // every frame, late if a frame took longer
+            lateness = now - this.lastDrawTime - Simulation.FRAME_INTERVAL;
+        } else {
+            // a new unit began at its boundary, or when the count down started
+            final long unitStart = this.expectedDeadline -
+                EasyTime.ceilUnits(timeLeft, tickInterval);
+            lateness = now - Math.max(unitStart, this.runningSince);
+        }
+        assertTrue("drew " + timeLeft + " ms left " + lateness + " ms late at " + now,
+            lateness <= this.simulation.getMaxLag());
+
+        if (this.drawnUnits != null) {
+            if (this.drawCount == this.drawnUnits.length) {
+                this.drawnUnits = Arrays.copyOf(this.drawnUnits, this.drawCount * 2);
+            }
+            this.drawnUnits[this.drawCount] =
+                EasyTime.ceilUnits(timeLeft, tickInterval) / tickInterval;
+        }
+        this.drawCount++;
+        this.lastDrawTime = now;
+        this.lastDrawnTimeLeft = timeLeft;
+        this.lastFrameTick = frameTick;
+    }
+
+
+    @NonNull
+    @Override
+    public EasyTickRegistry getTicker() {
+        return this.simulation;
+    }
+
+
+    @Override
+    public void onCountDownStart() {
+        this.startCount++;
+    }
+
+
+    @Override
+    public void onCountDownTimeError() {
+        this.timeErrorCount++;
+    }
+
+
+    @Override
+    public void onCountDownStop(final long millisInFuture) {
+    }
+
+
+    /**
+     * After every start and resume
+     */
+    @Override
+    public void resetTick() {
+        this.expectedDeadline = this.controller.getEngine().getDeadline();
+        this.redrawn();
+    }
+
+
+    @Override
+    public void postTick(final long timeLeft) {
+        this.simulation.countTick();
+    }
+
+
+    @Override
+    public void postCompleted() {
+        this.completedTime = this.simulation.clock.now();
+        this.completedCount++;
+    }
+
+
+    @Override
+    public boolean hasTickListener() {
+        return this.tickListener;
+    }
+
+
+    long getExpectedDeadline() {
+        return this.expectedDeadline;
+    }
+
+
+    int getDrawCount() {
+        return this.drawCount;
+    }
+
+
+    long getDrawnUnit(final int index) {
+        return this.drawnUnits[index];
+    }
+
+
+    /**
+     * @return the clock time of the completion, -1 if not completed
+     */
+    long getCompletedTime() {
+        return this.completedTime;
+    }
+
+
+    int getCompletedCount() {
+        return this.completedCount;
+    }
+
+
+    int getStartCount() {
+        return this.startCount;
+    }
+
+
+    int getTimeErrorCount() {
+        return this.timeErrorCount;
+    }
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2016 CaMnter yuanyu.camnter@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.camnter.easycountdowntextureview;
+
+import android.support.annotation.NonNull;
+import java.util.Random;
+
+/**
+ * Description：Simulation
+ * Created by：CaMnter
+ *
+ * The ticker thread on a fake clock. Instead of sleeping it jumps the clock to the
+ * earliest due tick, so a day of count down runs in milliseconds. Every wakeup can
+ * be late by a random lag, like a busy ticker thread or a janky frame. Seeded, the
+ * same seed runs the same ticks. Count downs register on it like on an {@link EasyTicker}.
+ */
+final class Simulation implements EasyTickRegistry {
+
+    // one display frame, for tickables that tick on every frame
+    static final long FRAME_INTERVAL = 16L;
+
+    final FakeClock clock = new FakeClock(0L);
+    final EasyTickQueue tickQueue = new EasyTickQueue();
+
+    private final Random random;
+    private long maxLag = 0L;
+
+    private long earliestTickTime = EasyTickQueue.NO_TICK;
+    private int modCount = -1;
+
+    private long tickCount = 0L;
+
+
+    Simulation(final long seed) {
+        this.random = new Random(seed);
+    }
+
+
+    Random getRandom() {
+        return this.random;
+    }
+
+
+    /**
+     * @param maxLag every wakeup happens up to this late
+     */
+    void setMaxLag(final long maxLag) {
+        this.maxLag = maxLag;
+    }
+
+
+    long getMaxLag() {
+        return this.maxLag;
+    }
+
+
+    @Override
+    public void register(@NonNull final EasyTickable tickable) {
+        this.tickQueue.add(tickable, this.clock.now());
+    }
+
+
+    @Override
+    public void unregister(@NonNull final EasyTickable tickable) {
+        this.tickQueue.remove(tickable);
+    }
+
+
+    /**
+     * Called by count downs for every engine tick, drawn or not
+     */
+    void countTick() {
+        this.tickCount++;
+    }
+
+
+    long getTickCount() {
+        return this.tickCount;
+    }
+
+
+    /**
+     * Run every tick before endTime, then move the clock to endTime. What happens
+     * at endTime happens before the ticks due then, like a stop racing a tick
+     *
+     * @param endTime endTime
+     */
+    void runUntil(final long endTime) {
+        while (true) {
+            final long tickTime = this.nextTickTime();
+            if (tickTime >= endTime) break;
+            final long lag = this.maxLag > 0 ? (long) (this.random.nextDouble() * (this.maxLag + 1))
+                                             : 0L;
+            final long now = Math.min(Math.max(this.clock.now(), tickTime + lag),
+                Math.max(tickTime, endTime - 1));
+            this.clock.advance(now - this.clock.now());
+            this.earliestTickTime = this.tickQueue.dispatch(now);
+        }
+        if (endTime != EasyTickQueue.NO_TICK && endTime > this.clock.now()) {
+            this.clock.advance(endTime - this.clock.now());
+        }
+    }
+
+
+    /**
+     * Run until every count down completed or stopped
+     */
+    void run() {
+        this.runUntil(EasyTickQueue.NO_TICK);
+    }
+
+
+    private long nextTickTime() {
+        // added, moved or removed since the last dispatch
+        if (this.tickQueue.getModCount() != this.modCount) {
+            this.modCount = this.tickQueue.getModCount();
+            this.earliestTickTime = this.tickQueue.getEarliestTickTime();
+        }
+        long tickTime = this.earliestTickTime;
+        if (this.tickQueue.isFrameRequested()) {
+            tickTime = Math.min(tickTime, this.clock.now() + FRAME_INTERVAL);
+        }
+        return tickTime;
+    }
+
+}
@@ -0,0 +1,448 @@
+/*
+ * Copyright (C) 2016 CaMnter yuanyu.camnter@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.camnter.easycountdowntextureview;
+
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Description：SimulationTest
+ * Created by：CaMnter
+ *
+ * Count downs on a {@link Simulation}: exact tick sequences and completion times,
+ * drift bounds under lag, surface loss, hiding, restoring, stop/start and
+ * pause/resume races, all through the controller the views use.
+ *
+ * ./gradlew :benchmark:test, optional seed: -Pseed=42
+ */
+public class SimulationTest {
+
+    private static final long SEED = Long.getLong("seed", 0x27L);
+
+
+    /**
+     * A count down whose surface just became available, which starts it like a view
+     */
+    private static SimulatedCountDown started(final Simulation simulation, final long time) {
+        final SimulatedCountDown countDown = new SimulatedCountDown(simulation, time);
+        countDown.attach();
+        return countDown;
+    }
+
+
+    /**
+     * A 24 hours count down draws every second exactly once, from 86400 to 0,
+     * and completes on the millisecond
+     */
+    @Test
+    public void oneDay() {
+        final Simulation simulation = new Simulation(SEED);
+        final long time = EasyTime.ONE_DAY;
+        final SimulatedCountDown countDown = new SimulatedCountDown(simulation, time);
+        countDown.recordDraws();
+        countDown.attach();
+        simulation.run();
+
+        final long seconds = time / EasyTime.ONE_SECOND;
+        assertEquals("draws", seconds + 1, countDown.getDrawCount());
+        for (int i = 0; i <= seconds; i++) {
+            assertEquals("draw " + i, seconds - i, countDown.getDrawnUnit(i));
+        }
+        assertCompleted(countDown, 0L);
+    }
+
+
+    /**
+     * Whole second count downs started together share every wakeup
+     */
+    @Test
+    public void alignedTimers() {
+        final Simulation simulation = new Simulation(SEED);
+        final int timers = 10000;
+        final long maxSeconds = 600;
+        final SimulatedCountDown[] countDowns = new SimulatedCountDown[timers];
+        long expectedTicks = 0;
+        for (int i = 0; i < timers; i++) {
+            final long seconds = i % maxSeconds + 1;
+            countDowns[i] = started(simulation, seconds * EasyTime.ONE_SECOND);
+            expectedTicks += seconds + 1;
+        }
+        simulation.run();
+
+        for (SimulatedCountDown countDown : countDowns) {
+            assertCompleted(countDown, 0L);
+        }
+        assertEquals("ticks", expectedTicks, simulation.getTickCount());
+        assertEquals("wakeups", maxSeconds + 1, simulation.tickQueue.getWakeupCount());
+        assertEquals("spurious wakeups", 0, simulation.tickQueue.getSpuriousWakeupCount());
+    }
+
+
+    /**
+     * Count downs with random millis each wake the queue up on their own
+     */
+    @Test
+    public void staggeredTimers() {
+        final Simulation simulation = new Simulation(SEED);
+        final Random random = simulation.getRandom();
+        final SimulatedCountDown[] countDowns = new SimulatedCountDown[1000];
+        for (int i = 0; i < countDowns.length; i++) {
+            countDowns[i] = started(simulation, 1 + random.nextInt((int) EasyTime.ONE_MINUTE));
+        }
+        simulation.run();
+
+        for (SimulatedCountDown countDown : countDowns) {
+            assertCompleted(countDown, 0L);
+        }
+    }
+
+
+    /**
+     * The surface goes away and comes back, the count down keeps its deadline
+     * and draws the right second as soon as it is back
+     */
+    @Test
+    public void surfaceRecreate() {
+        final Simulation simulation = new Simulation(SEED);
+        final Random random = simulation.getRandom();
+        final SimulatedCountDown countDown = started(simulation, 2 * EasyTime.ONE_MINUTE);
+        final long deadline = countDown.getExpectedDeadline();
+        while (simulation.clock.now() < deadline - 10 * EasyTime.ONE_SECOND) {
+            simulation.runUntil(simulation.clock.now() + random.nextInt(5000));
+            countDown.detach();
+            simulation.runUntil(simulation.clock.now() + random.nextInt(5000));
+            countDown.attach();
+        }
+        simulation.run();
+
+        assertCompleted(countDown, 0L);
+        assertEquals("starts", 1, countDown.getStartCount());
+    }
+
+
+    /**
+     * Without a surface past the deadline, completed on time with one wakeup for it,
+     * and not started again by the surface coming back
+     */
+    @Test
+    public void surfaceBackAfterDeadline() {
+        final Simulation simulation = new Simulation(SEED);
+        final SimulatedCountDown countDown = started(simulation, EasyTime.ONE_MINUTE);
+        simulation.runUntil(EasyTime.ONE_SECOND / 2);
+        countDown.detach();
+        simulation.runUntil(2 * EasyTime.ONE_MINUTE);
+        countDown.attach();
+        simulation.run();
+
+        assertCompleted(countDown, 0L);
+        assertEquals("wakeups", 3, simulation.tickQueue.getWakeupCount());
+        assertEquals("missed ticks", 0,
+            countDown.getEngine().getMetrics().getMissedTickCount());
+        assertEquals("draws", 1, countDown.getDrawCount());
+        assertEquals("starts", 1, countDown.getStartCount());
+        assertEquals("time errors", 0, countDown.getTimeErrorCount());
+        assertFalse("registered", countDown.isRegistered());
+    }
+
+
+    /**
+     * Detached and attached again, a running count down draws on without a second
+     * onCountDownStart, a completed or stopped one stays as it is
+     */
+    @Test
+    public void reattachStartsOnce() {
+        final Simulation simulation = new Simulation(SEED);
+        final SimulatedCountDown countDown = started(simulation, 30 * EasyTime.ONE_SECOND);
+        simulation.runUntil(5 * EasyTime.ONE_SECOND);
+        countDown.detach();
+        simulation.runUntil(10 * EasyTime.ONE_SECOND);
+        countDown.attach();
+        assertEquals("starts", 1, countDown.getStartCount());
+        assertTrue("running", countDown.getEngine().isRunning());
+        simulation.run();
+        assertCompleted(countDown, 0L);
+
+        countDown.detach();
+        countDown.attach();
+        simulation.run();
+        assertEquals("starts", 1, countDown.getStartCount());
+        assertEquals("time errors", 0, countDown.getTimeErrorCount());
+        assertEquals("completions", 1, countDown.getCompletedCount());
+        assertFalse("running", countDown.getEngine().isRunning());
+        assertFalse("registered", countDown.isRegistered());
+
+        final SimulatedCountDown stopped = started(simulation, 30 * EasyTime.ONE_SECOND);
+        simulation.runUntil(simulation.clock.now() + 5 * EasyTime.ONE_SECOND);
+        stopped.getController().stop();
+        stopped.detach();
+        stopped.attach();
+        assertEquals("starts", 1, stopped.getStartCount());
+        assertFalse("running", stopped.getEngine().isRunning());
+        assertFalse("registered", stopped.isRegistered());
+    }
+
+
+    /**
+     * Stopped with its deadline recorded and restored after the deadline passed, it
+     * reports the completion once and no time error
+     */
+    @Test
+    public void restoredAfterDeadline() {
+        final Simulation simulation = new Simulation(SEED);
+        final SimulatedCountDown countDown = started(simulation, EasyTime.ONE_MINUTE);
+        simulation.runUntil(10 * EasyTime.ONE_SECOND);
+        countDown.detach();
+        countDown.getController().stopAndRecordTime();
+        simulation.runUntil(2 * EasyTime.ONE_MINUTE);
+        countDown.attach();
+        simulation.run();
+
+        assertEquals("completed at", 2 * EasyTime.ONE_MINUTE, countDown.getCompletedTime());
+        assertEquals("completions", 1, countDown.getCompletedCount());
+        assertEquals("time errors", 0, countDown.getTimeErrorCount());
+        assertEquals("starts", 1, countDown.getStartCount());
+        assertFalse("running", countDown.getEngine().isRunning());
+        assertFalse("registered", countDown.isRegistered());
+    }
+
+
+    /**
+     * Hidden, it wakes up only for the completion, misses no tick and draws nothing,
+     * shown again it draws right away
+     */
+    @Test
+    public void hiddenWakesAtDeadline() {
+        final Simulation simulation = new Simulation(SEED);
+        final SimulatedCountDown countDown = started(simulation, EasyTime.ONE_MINUTE);
+        simulation.runUntil(1500L);
+        countDown.setHidden(true);
+        simulation.runUntil(EasyTime.ONE_MINUTE - 1);
+        // 0 and 1000 drawn, 2000 due before hiding, then the deadline
+        assertEquals("wakeups", 3, simulation.tickQueue.getWakeupCount());
+        assertEquals("draws", 2, countDown.getDrawCount());
+        countDown.setHidden(false);
+        simulation.run();
+
+        assertCompleted(countDown, 0L);
+        assertEquals("draws", 4, countDown.getDrawCount());
+        assertEquals("missed ticks", 0,
+            countDown.getEngine().getMetrics().getMissedTickCount());
+    }
+
+
+    /**
+     * Hidden with a tick listener, every second is still ticked and nothing drawn
+     */
+    @Test
+    public void hiddenWithTickListener() {
+        final Simulation simulation = new Simulation(SEED);
+        final long seconds = 60;
+        final SimulatedCountDown countDown = started(simulation, seconds * EasyTime.ONE_SECOND);
+        countDown.setHidden(true);
+        countDown.setTickListener(true);
+        simulation.run();
+
+        assertCompleted(countDown, 0L);
+        assertEquals("ticks", seconds + 1, simulation.getTickCount());
+        assertEquals("draws", 0, countDown.getDrawCount());
+    }
+
+
+    /**
+     * Stops and starts at random times, many of them right on a due tick before it
+     * runs, some from "another thread" that leave the tick in the queue. The count
+     * down completes after its time plus every stopped millisecond, exactly. A stop
+     * right on the deadline leaves nothing to complete
+     */
+    @Test
+    public void stopStartRaces() {
+        final Simulation simulation = new Simulation(SEED);
+        final Random random = simulation.getRandom();
+        final long time = EasyTime.ONE_MINUTE;
+        final SimulatedCountDown countDown = started(simulation, time);
+        final EasyCountDownController controller = countDown.getController();
+        long stoppedTime = 0L;
+        long stoppedAt = -1L;
+        while (countDown.getCompletedTime() < 0 && countDown.getEngine().getTimeLeft() > 0) {
+            // on a second boundary half of the time
+            final long delay = random.nextBoolean()
+                               ? random.nextInt(3) * EasyTime.ONE_SECOND
+                               : random.nextInt(3000);
+            simulation.runUntil(simulation.clock.now() + delay);
+            if (countDown.getCompletedTime() >= 0) break;
+            final long now = simulation.clock.now();
+            switch (random.nextInt(4)) {
+                case 0:
+                    if (stoppedAt < 0) stoppedAt = now;
+                    controller.stop();
+                    break;
+                case 1:
+                    if (stoppedAt < 0) stoppedAt = now;
+                    // from another thread while the tick is due, the ticker drops it
+                    countDown.getEngine().stop();
+                    break;
+                default:
+                    // a second start is a no-op
+                    controller.start();
+                    if (stoppedAt >= 0) {
+                        stoppedTime += now - stoppedAt;
+                        stoppedAt = -1L;
+                    }
+                    break;
+            }
+        }
+        final long endTime = countDown.getCompletedTime() >= 0 ? countDown.getCompletedTime()
+                                                               : stoppedAt;
+        assertEquals("ended, stopped for " + stoppedTime, time + stoppedTime, endTime);
+    }
+
+
+    /**
+     * A pause and a resume from two threads, each a state change and then a
+     * registration, interleaved in random orders. After every race the count down
+     * is registered exactly while it runs, and it completes after its time plus
+     * every paused millisecond
+     */
+    @Test
+    public void pauseResumeRaces() {
+        final Simulation simulation = new Simulation(SEED);
+        final Random random = simulation.getRandom();
+        final long time = EasyTime.ONE_MINUTE;
+        final SimulatedCountDown countDown = started(simulation, time);
+        final EasyCountDownController controller = countDown.getController();
+        final EasyCountDownEngine engine = countDown.getEngine();
+        long pausedTime = 0L;
+        long pausedAt = -1L;
+        while (countDown.getCompletedTime() < 0) {
+            simulation.runUntil(simulation.clock.now() + random.nextInt(3000));
+            if (countDown.getCompletedTime() >= 0) break;
+            final long now = simulation.clock.now();
+            boolean paused = false;
+            boolean resumed = false;
+            int pauseSteps = 0;
+            int resumeSteps = 0;
+            // the two halves of pause() and resume() of the controller
+            while (pauseSteps < 2 || resumeSteps < 2) {
+                if (resumeSteps == 2 || (pauseSteps < 2 && random.nextBoolean())) {
+                    if (pauseSteps++ == 0) {
+                        paused = engine.pause();
+                    } else if (paused) {
+                        controller.releaseTick();
+                    }
+                } else {
+                    if (resumeSteps++ == 0) {
+                        resumed = engine.resume();
+                        if (resumed) countDown.resetTick();
+                    } else if (resumed) {
+                        controller.registerTick();
+                    }
+                }
+            }
+            assertEquals((engine.isRunning() ? "running" : "paused") + " at " + now,
+                engine.isRunning(), countDown.isRegistered());
+            if (!engine.isRunning() && pausedAt < 0) {
+                pausedAt = now;
+            } else if (engine.isRunning() && pausedAt >= 0) {
+                pausedTime += now - pausedAt;
+                pausedAt = -1L;
+            }
+        }
+        assertEquals("completed, paused for " + pausedTime, time + pausedTime,
+            countDown.getCompletedTime());
+        assertCompleted(countDown, 0L);
+    }
+
+
+    /**
+     * Every wakeup is up to 250 ms late, no second is skipped
+     */
+    @Test
+    public void laggingTicks() {
+        assertEquals("missed ticks", 0, runLagging(250L));
+    }
+
+
+    /**
+     * Every wakeup is up to 2500 ms late, seconds are skipped but none is shown later
+     * than the lag
+     */
+    @Test
+    public void longLaggingTicks() {
+        assertTrue("missed ticks", runLagging(2500L) > 0);
+    }
+
+
+    /**
+     * @return missed ticks of all count downs
+     */
+    private static long runLagging(final long maxLag) {
+        final Simulation simulation = new Simulation(SEED);
+        simulation.setMaxLag(maxLag);
+        final Random random = simulation.getRandom();
+        final SimulatedCountDown[] countDowns = new SimulatedCountDown[100];
+        for (int i = 0; i < countDowns.length; i++) {
+            countDowns[i] = started(simulation, 1 + random.nextInt((int) EasyTime.ONE_MINUTE));
+        }
+        simulation.run();
+
+        long missedTicks = 0L;
+        for (SimulatedCountDown countDown : countDowns) {
+            assertCompleted(countDown, maxLag);
+            missedTicks += countDown.getEngine().getMetrics().getMissedTickCount();
+        }
+        return missedTicks;
+    }
+
+
+    /**
+     * The last seconds tick on every frame, frames and ticks come up to 40 ms late
+     */
+    @Test
+    public void laggingFrames() {
+        final Simulation simulation = new Simulation(SEED);
+        simulation.setMaxLag(40L);
+        final Random random = simulation.getRandom();
+        final SimulatedCountDown[] countDowns = new SimulatedCountDown[100];
+        for (int i = 0; i < countDowns.length; i++) {
+            countDowns[i] = new SimulatedCountDown(simulation,
+                1 + random.nextInt((int) (10 * EasyTime.ONE_SECOND)));
+            countDowns[i].getController().setTickInterval(EasyTime.ONE_SECOND,
+                3 * EasyTime.ONE_SECOND);
+            countDowns[i].attach();
+        }
+        simulation.run();
+
+        for (SimulatedCountDown countDown : countDowns) {
+            assertCompleted(countDown, simulation.getMaxLag() + Simulation.FRAME_INTERVAL);
+        }
+    }
+
+
+    private static void assertCompleted(final SimulatedCountDown countDown,
+                                        final long maxDrift) {
+        final long drift = countDown.getCompletedTime() - countDown.getExpectedDeadline();
+        assertTrue("completed at " + countDown.getCompletedTime() + ", deadline " +
+                countDown.getExpectedDeadline(),
+            countDown.getCompletedTime() >= 0 && drift >= 0 && drift <= maxDrift);
+        assertFalse("still running", countDown.getEngine().isRunning());
+    }
+
+}
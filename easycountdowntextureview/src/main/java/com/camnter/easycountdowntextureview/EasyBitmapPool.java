@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2016 CaMnter yuanyu.camnter@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.camnter.easycountdowntextureview;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.support.annotation.NonNull;
+import java.util.ArrayList;
+
+/**
+ * Description：EasyBitmapPool
+ * Created by：CaMnter
+ *
+ * A few released bitmaps kept for reuse, looked up by size and config. An
+ * offscreen count down gets its bitmap here and gives it back when its size
+ * changes or it is released, so refreshing a notification or a widget never
+ * allocates a bitmap once the pool is warm.
+ */
+public final class EasyBitmapPool {
+
+    private static final int DEFAULT_MAX_SIZE = 4;
+
+    private static final EasyBitmapPool DEFAULT = new EasyBitmapPool(DEFAULT_MAX_SIZE);
+
+    private final Object lock = new Object();
+
+    private final int maxSize;
+    // the oldest released first
+    private final ArrayList<Bitmap> bitmaps;
+
+
+    /**
+     * @param maxSize how many released bitmaps are kept, the oldest is recycled beyond
+     */
+    public EasyBitmapPool(final int maxSize) {
+        this.maxSize = maxSize;
+        this.bitmaps = new ArrayList<>(maxSize);
+    }
+
+
+    /**
+     * The pool of every offscreen count down without a pool of its own
+     */
+    @NonNull
+    public static EasyBitmapPool getDefault() {
+        return DEFAULT;
+    }
+
+
+    /**
+     * A released bitmap of this size and config, cleared to transparent, or a new one
+     *
+     * @param width width
+     * @param height height
+     * @param config config
+     * @return a mutable bitmap
+     */
+    @NonNull
+    public Bitmap obtain(final int width, final int height, @NonNull final Bitmap.Config config) {
+        synchronized (this.lock) {
+            // the newest first, the most likely to be warm
+            for (int i = this.bitmaps.size() - 1; i >= 0; i--) {
+                final Bitmap bitmap = this.bitmaps.get(i);
+                if (bitmap.getWidth() == width && bitmap.getHeight() == height &&
+                    bitmap.getConfig() == config) {
+                    this.bitmaps.remove(i);
+                    bitmap.eraseColor(Color.TRANSPARENT);
+                    return bitmap;
+                }
+            }
+        }
+        return Bitmap.createBitmap(width, height, config);
+    }
+
+
+    /**
+     * Give a bitmap back, it must not be used after this
+     *
+     * @param bitmap bitmap
+     */
+    public void release(@NonNull final Bitmap bitmap) {
+        if (bitmap.isRecycled() || !bitmap.isMutable()) return;
+        synchronized (this.lock) {
+            if (this.bitmaps.contains(bitmap)) return;
+            if (this.bitmaps.size() >= this.maxSize) {
+                if (this.maxSize <= 0) {
+                    bitmap.recycle();
+                    return;
+                }
+                this.bitmaps.remove(0).recycle();
+            }
+            this.bitmaps.add(bitmap);
+        }
+    }
+
+
+    /**
+     * Recycle every kept bitmap, from onTrimMemory for example
+     */
+    public void clear() {
+        synchronized (this.lock) {
+            for (Bitmap bitmap : this.bitmaps) {
+                bitmap.recycle();
+            }
+            this.bitmaps.clear();
+        }
+    }
+
+
+    public int size() {
+        synchronized (this.lock) {
+            return this.bitmaps.size();
+        }
+    }
+
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright (C) 2016 CaMnter yuanyu.camnter@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.camnter.easycountdowntextureview;
+
+/**
+ * Description：EasyClock
+ * Created by：CaMnter
+ *
+ * A monotonic millisecond time source, so count down logic can run against
+ * SystemClock on a device or a fake clock on the JVM.
+ */
+public interface EasyClock {
+
+    /**
+     * @return current time in milliseconds, never going backwards
+     */
+    long now();
+
+}
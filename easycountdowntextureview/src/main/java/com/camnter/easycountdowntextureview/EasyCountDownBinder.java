@@ -0,0 +1,315 @@
+/*
+ * Copyright (C) 2016 CaMnter yuanyu.camnter@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.camnter.easycountdowntextureview;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Message;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.widget.TextView;
+import java.util.Locale;
+
+/**
+ * Description：EasyCountDownBinder
+ * Created by：CaMnter
+ *
+ * Count downs for the rows of a list. A row only holds its deadline, one
+ * main thread tick updates every bound TextView that is shown, no surface
+ * and no thread per row.
+ *
+ * Call {@link #bind(TextView, long)} from onBindViewHolder. A recycled
+ * TextView keeps its slot in a tag, so binding finds it without a scan.
+ * A TextView is bound to one binder at a time.
+ */
+public final class EasyCountDownBinder {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final char COLON = ':';
+    // hours, two colons, minutes and seconds
+    private static final int TEXT_LENGTH = EasyDigitCache.MAX_DIGITS + 6;
+
+    private final TickHandler tickHandler = new TickHandler(this);
+
+    private final EasyDigitCache digitCache = EasyDigitCache.obtain(Locale.getDefault());
+    // for more than two hour digits
+    private final char[] digitBuffer = new char[EasyDigitCache.MAX_DIGITS];
+
+    /*****************
+     * Bound targets *
+     *****************/
+    private int size = 0;
+    private TextView[] targets = new TextView[INITIAL_CAPACITY];
+    // elapsed realtime
+    private long[] deadlines = new long[INITIAL_CAPACITY];
+    // -1 before the first draw
+    private long[] shownSeconds = new long[INITIAL_CAPACITY];
+    // TextView keeps the char[] it is given, so one per target
+    private char[][] texts = new char[INITIAL_CAPACITY][];
+
+    private boolean paused = false;
+
+
+    /**
+     * Tag of a bound TextView, kept after unbind for the next bind
+     */
+    private static final class Slot {
+
+        private final EasyCountDownBinder binder;
+        // -1 if unbound
+        private int index = -1;
+
+
+        Slot(@NonNull final EasyCountDownBinder binder) {
+            this.binder = binder;
+        }
+
+    }
+
+
+    private static final class TickHandler extends Handler {
+
+        private static final int WHAT_TICK = 0x29;
+
+        private final EasyCountDownBinder binder;
+
+
+        TickHandler(@NonNull final EasyCountDownBinder binder) {
+            super(Looper.getMainLooper());
+            this.binder = binder;
+        }
+
+
+        @Override
+        public void dispatchMessage(Message msg) {
+            switch (msg.what) {
+                case WHAT_TICK:
+                    this.binder.tick();
+                    break;
+            }
+        }
+
+
+        void scheduleTick(final long delay) {
+            this.removeMessages(WHAT_TICK);
+            if (delay <= 0) {
+                this.sendEmptyMessage(WHAT_TICK);
+            } else {
+                this.sendEmptyMessageDelayed(WHAT_TICK, delay);
+            }
+        }
+
+    }
+
+
+    /**
+     * Show the count down of deadline on target, main thread only
+     *
+     * @param target target
+     * @param deadline elapsed realtime of the end
+     */
+    public void bind(@NonNull final TextView target, final long deadline) {
+        final Slot slot = this.obtainSlot(target);
+        int index = slot.index;
+        if (index < 0) {
+            if (this.size == this.targets.length) this.grow();
+            index = this.size++;
+            slot.index = index;
+            this.targets[index] = target;
+            if (this.texts[index] == null) this.texts[index] = new char[TEXT_LENGTH];
+        }
+        this.deadlines[index] = deadline;
+        this.shownSeconds[index] = -1L;
+        this.draw(index, SystemClock.elapsedRealtime());
+        if (!this.paused) this.tickHandler.scheduleTick(0);
+    }
+
+
+    /**
+     * Show the count down of timeMillis from now on target, main thread only
+     *
+     * @param target target
+     * @param timeMillis time left
+     */
+    public void bindTime(@NonNull final TextView target, final long timeMillis) {
+        this.bind(target, SystemClock.elapsedRealtime() + timeMillis);
+    }
+
+
+    /**
+     * Stop updating target, main thread only
+     *
+     * @param target target
+     */
+    public void unbind(@NonNull final TextView target) {
+        final Slot slot = this.slotOf(target);
+        if (slot == null || slot.index < 0) return;
+        final int index = slot.index;
+        slot.index = -1;
+        detachText(target);
+        final int last = --this.size;
+        // keep the char[] of the removed slot for the next bind
+        final char[] text = this.texts[index];
+        this.targets[index] = this.targets[last];
+        if (index != last) this.slotOf(this.targets[index]).index = index;
+        this.deadlines[index] = this.deadlines[last];
+        this.shownSeconds[index] = this.shownSeconds[last];
+        this.texts[index] = this.texts[last];
+        this.targets[last] = null;
+        this.texts[last] = text;
+    }
+
+
+    public void unbindAll() {
+        for (int i = 0; i < this.size; i++) {
+            this.slotOf(this.targets[i]).index = -1;
+            detachText(this.targets[i]);
+            this.targets[i] = null;
+        }
+        this.size = 0;
+        this.tickHandler.removeMessages(TickHandler.WHAT_TICK);
+    }
+
+
+    /**
+     * Stop ticking, for Activity.onPause
+     */
+    public void pause() {
+        this.paused = true;
+        this.tickHandler.removeMessages(TickHandler.WHAT_TICK);
+    }
+
+
+    /**
+     * Tick again, for Activity.onResume
+     */
+    public void resume() {
+        if (!this.paused) return;
+        this.paused = false;
+        this.tickHandler.scheduleTick(0);
+    }
+
+
+    public int getBoundCount() {
+        return this.size;
+    }
+
+
+    /**
+     * @param target target
+     * @return the slot of this binder, null if target was never bound to it
+     */
+    private Slot slotOf(@NonNull final TextView target) {
+        final Object tag = target.getTag(R.id.easy_count_down_binder_slot);
+        if (!(tag instanceof Slot)) return null;
+        final Slot slot = (Slot) tag;
+        return slot.binder == this ? slot : null;
+    }
+
+
+    @NonNull
+    private Slot obtainSlot(@NonNull final TextView target) {
+        Slot slot = this.slotOf(target);
+        if (slot == null) {
+            slot = new Slot(this);
+            target.setTag(R.id.easy_count_down_binder_slot, slot);
+        }
+        return slot;
+    }
+
+
+    /**
+     * TextView shows the char[] it was given, which the next bind of the slot
+     * overwrites, so leave it a copy of its last text
+     */
+    private static void detachText(@NonNull final TextView target) {
+        target.setText(target.getText().toString());
+    }
+
+
+    private void grow() {
+        final int capacity = this.targets.length * 2;
+        final TextView[] targets = new TextView[capacity];
+        final long[] deadlines = new long[capacity];
+        final long[] shownSeconds = new long[capacity];
+        final char[][] texts = new char[capacity][];
+        System.arraycopy(this.targets, 0, targets, 0, this.size);
+        System.arraycopy(this.deadlines, 0, deadlines, 0, this.size);
+        System.arraycopy(this.shownSeconds, 0, shownSeconds, 0, this.size);
+        System.arraycopy(this.texts, 0, texts, 0, this.size);
+        this.targets = targets;
+        this.deadlines = deadlines;
+        this.shownSeconds = shownSeconds;
+        this.texts = texts;
+    }
+
+
+    /**
+     * Draw every shown target whose second changed, then sleep until the
+     * earliest next second of any bound target
+     */
+    private void tick() {
+        if (this.paused) return;
+        final long now = SystemClock.elapsedRealtime();
+        long earliestTickTime = Long.MAX_VALUE;
+        for (int i = 0; i < this.size; i++) {
+            final long secondsLeft = this.draw(i, now);
+            if (secondsLeft <= 0) continue;
+            // the moment secondsLeft - 1 starts to be shown
+            earliestTickTime = Math.min(earliestTickTime,
+                this.deadlines[i] - (secondsLeft - 1) * EasyTime.ONE_SECOND);
+        }
+        if (earliestTickTime == Long.MAX_VALUE) return;
+        this.tickHandler.scheduleTick(earliestTickTime - now);
+    }
+
+
+    /**
+     * Draw target index if it is shown and its second changed
+     *
+     * @param index index
+     * @param now elapsed realtime
+     * @return seconds left
+     */
+    private long draw(final int index, final long now) {
+        final long secondsLeft = EasyTime.ceilSeconds(this.deadlines[index] - now);
+        // detached or hidden rows are drawn again once they tick while shown
+        if (secondsLeft == this.shownSeconds[index] || !this.targets[index].isShown()) {
+            return secondsLeft;
+        }
+        this.shownSeconds[index] = secondsLeft;
+        final char[] text = this.texts[index];
+        final long millis = secondsLeft * EasyTime.ONE_SECOND;
+        final int start = this.digitCache.fill(EasyTime.totalHours(millis), this.digitBuffer);
+        int length = this.digitBuffer.length - start;
+        System.arraycopy(this.digitBuffer, start, text, 0, length);
+        text[length++] = COLON;
+        length = this.appendTwoDigits(text, length, EasyTime.minutesOfHour(millis));
+        text[length++] = COLON;
+        length = this.appendTwoDigits(text, length, EasyTime.secondsOfMinute(millis));
+        this.targets[index].setText(text, 0, length);
+        return secondsLeft;
+    }
+
+
+    private int appendTwoDigits(@NonNull final char[] text, final int offset, final int value) {
+        System.arraycopy(this.digitCache.getTwoDigits(), this.digitCache.indexOf(value), text,
+            offset, 2);
+        return offset + 2;
+    }
+
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright (C) 2016 CaMnter yuanyu.camnter@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.camnter.easycountdowntextureview;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+import android.os.Build;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.StyleRes;
+import android.view.View;
+
+/**
+ * Description：EasyCountDownBitmapRenderer
+ * Created by：CaMnter
+ *
+ * The boxes of {@link EasyCountDownTextureView} drawn into a bitmap, for an ongoing
+ * notification, a home screen widget or a snapshot, where no view can be used. It takes
+ * the same attributes from a style. {@link #update(long)} draws only when a shown value
+ * changed, only the changed segments, and always into the same bitmap from an
+ * {@link EasyBitmapPool}.
+ *
+ * RemoteViews copies the bitmap when the notification or widget is updated, so post
+ * it right after {@link #update(long)}, the next update draws into it again.
+ */
+public final class EasyCountDownBitmapRenderer {
+
+    private final Object lock = new Object();
+
+    private final EasyCountDownRenderer renderer;
+    private final Canvas canvas = new Canvas();
+    private final Rect dirtyRect = new Rect();
+
+    private EasyBitmapPool bitmapPool = EasyBitmapPool.getDefault();
+    private Bitmap.Config bitmapConfig = Bitmap.Config.ARGB_8888;
+    private int backdropColor;
+
+    @Nullable private Bitmap bitmap;
+    // the boxes and the border around them
+    private int bitmapWidth;
+    private int bitmapHeight;
+
+    private final int[] segmentValues = new int[EasyCountDownRenderer.SEGMENT_COUNT];
+    private final int[] lastDrawnValues = new int[EasyCountDownRenderer.SEGMENT_COUNT];
+    // everything after a new bitmap or style
+    private boolean fullRedraw = true;
+
+
+    public EasyCountDownBitmapRenderer(@NonNull final Context context) {
+        this(context, 0);
+    }
+
+
+    /**
+     * @param context context
+     * @param styleRes a style of easyCount* attributes, 0 for the defaults
+     */
+    public EasyCountDownBitmapRenderer(@NonNull final Context context,
+                                       @StyleRes final int styleRes) {
+        final TypedArray typedArray = context.obtainStyledAttributes(null,
+            R.styleable.EasyCountDownTextureView, 0, styleRes);
+        this.backdropColor = typedArray.getColor(
+            R.styleable.EasyCountDownTextureView_easyCountBackdropColor, Color.TRANSPARENT);
+        this.renderer = new EasyCountDownRenderer(context.getResources().getDisplayMetrics(),
+            typedArray);
+        typedArray.recycle();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            this.renderer.setRtl(context.getResources().getConfiguration().getLayoutDirection() ==
+                View.LAYOUT_DIRECTION_RTL);
+        }
+        this.refitBitmapSize();
+    }
+
+
+    /**
+     * The boxes start at the border, the bitmap is just large enough for them
+     */
+    private void refitBitmapSize() {
+        this.renderer.setPadding(0, 0);
+        this.renderer.getSegmentBounds(this.renderer.getFirstSegment(), this.dirtyRect);
+        this.bitmapWidth = this.dirtyRect.right - this.dirtyRect.left;
+        this.bitmapHeight = this.dirtyRect.bottom - this.dirtyRect.top;
+        this.renderer.setPadding(-this.dirtyRect.left, -this.dirtyRect.top);
+        this.fullRedraw = true;
+    }
+
+
+    /**
+     * @param bitmapPool where bitmaps come from and go back to, {@link EasyBitmapPool#getDefault()}
+     * by default
+     */
+    public void setBitmapPool(@NonNull final EasyBitmapPool bitmapPool) {
+        synchronized (this.lock) {
+            this.releaseBitmap();
+            this.bitmapPool = bitmapPool;
+        }
+    }
+
+
+    /**
+     * @param bitmapConfig {@link Bitmap.Config#ARGB_8888} by default, RGB_565 halves the
+     * memory with an opaque backdrop color
+     */
+    public void setBitmapConfig(@NonNull final Bitmap.Config bitmapConfig) {
+        synchronized (this.lock) {
+            if (this.bitmapConfig == bitmapConfig) return;
+            this.releaseBitmap();
+            this.bitmapConfig = bitmapConfig;
+        }
+    }
+
+
+    /**
+     * @param backdropColor fills the bitmap behind the boxes, {@link Color#TRANSPARENT} by
+     * default
+     */
+    public void setBackdropColor(final int backdropColor) {
+        synchronized (this.lock) {
+            this.backdropColor = backdropColor;
+            this.fullRedraw = true;
+        }
+    }
+
+
+    /**
+     * @param fields FIELD_* flags of {@link EasyCountDownTextureView}
+     */
+    public void setFields(final int fields) {
+        synchronized (this.lock) {
+            this.renderer.setFields(fields);
+            this.refitBitmapSize();
+        }
+    }
+
+
+    /**
+     * @param separator between whole units, ":" by default
+     * @param fractionSeparator in front of the fraction, "." by default
+     */
+    public void setSeparators(@NonNull final String separator,
+                              @NonNull final String fractionSeparator) {
+        synchronized (this.lock) {
+            this.renderer.setSeparators(separator, fractionSeparator);
+            this.fullRedraw = true;
+        }
+    }
+
+
+    /**
+     * Mirror the segments, the layout direction of the context by default
+     *
+     * @param rtl rtl
+     */
+    public void setRtl(final boolean rtl) {
+        synchronized (this.lock) {
+            this.renderer.setRtl(rtl);
+            this.refitBitmapSize();
+        }
+    }
+
+
+    /**
+     * How often the shown value changes, update at this rate
+     *
+     * @return millis
+     */
+    public long getTickUnit() {
+        synchronized (this.lock) {
+            return this.renderer.getTickUnit();
+        }
+    }
+
+
+    /**
+     * Draw the time left if a shown value changed. Whole units are rounded up like in
+     * the views, a fraction is shown exactly
+     *
+     * @param timeLeft timeLeft
+     * @return true if the bitmap changed and should be posted again
+     */
+    public boolean update(final long timeLeft) {
+        synchronized (this.lock) {
+            final long drawnTimeLeft = this.renderer.hasSubSecond()
+                                       ? Math.max(0L, timeLeft)
+                                       : EasyTime.ceilUnits(Math.max(0L, timeLeft),
+                                           this.renderer.getTickUnit());
+            this.renderer.splitTime(drawnTimeLeft, this.segmentValues);
+            this.obtainBitmap();
+
+            final int lastSegment = this.renderer.getLastSegment();
+            int fromSegment = this.renderer.getFirstSegment();
+            if (!this.fullRedraw) {
+                while (fromSegment <= lastSegment &&
+                    this.segmentValues[fromSegment] == this.lastDrawnValues[fromSegment]) {
+                    fromSegment++;
+                }
+                if (fromSegment > lastSegment) return false;
+            }
+
+            // from the colon in front of the segment, it is repainted too
+            this.renderer.getSegmentBounds(fromSegment, this.dirtyRect);
+            this.canvas.save();
+            this.canvas.clipRect(this.dirtyRect);
+            this.canvas.drawColor(this.backdropColor, PorterDuff.Mode.SRC);
+            this.renderer.drawTimeAndBackground(this.canvas, this.segmentValues, fromSegment);
+            this.canvas.restore();
+            System.arraycopy(this.segmentValues, 0, this.lastDrawnValues, 0,
+                EasyCountDownRenderer.SEGMENT_COUNT);
+            this.fullRedraw = false;
+            return true;
+        }
+    }
+
+
+    /**
+     * Keep the bitmap while its size and config fit, otherwise swap it in the pool
+     */
+    private void obtainBitmap() {
+        final Bitmap bitmap = this.bitmap;
+        if (bitmap != null && !bitmap.isRecycled() &&
+            bitmap.getWidth() == this.bitmapWidth && bitmap.getHeight() == this.bitmapHeight) {
+            return;
+        }
+        this.releaseBitmap();
+        this.bitmap = this.bitmapPool.obtain(this.bitmapWidth, this.bitmapHeight,
+            this.bitmapConfig);
+        this.canvas.setBitmap(this.bitmap);
+        this.fullRedraw = true;
+    }
+
+
+    private void releaseBitmap() {
+        if (this.bitmap == null) return;
+        this.canvas.setBitmap(null);
+        this.bitmapPool.release(this.bitmap);
+        this.bitmap = null;
+        this.fullRedraw = true;
+    }
+
+
+    /**
+     * The bitmap drawn by the last {@link #update(long)}, drawn into again by the next one
+     *
+     * @return bitmap, null before the first update or after {@link #release()}
+     */
+    @Nullable
+    public Bitmap getBitmap() {
+        synchronized (this.lock) {
+            return this.bitmap;
+        }
+    }
+
+
+    /**
+     * Give the bitmap back to the pool, the next update draws into a new one
+     */
+    public void release() {
+        synchronized (this.lock) {
+            this.releaseBitmap();
+        }
+    }
+
+}
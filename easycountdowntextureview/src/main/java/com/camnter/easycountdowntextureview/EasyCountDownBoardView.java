@@ -0,0 +1,796 @@
+/*
+ * Copyright (C) 2016 CaMnter yuanyu.camnter@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.camnter.easycountdowntextureview;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+import android.graphics.SurfaceTexture;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Message;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.StyleRes;
+import android.util.AttributeSet;
+import android.util.Log;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+import android.view.TextureView;
+import android.view.View;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+
+/**
+ * Description：EasyCountDownBoardView
+ * Created by：CaMnter
+ *
+ * Many count downs on one surface, for a board or a grid of timers. Every entry
+ * only holds its deadline, position and style, one tickable of the shared
+ * {@link EasyTicker} draws all of them: one surface, one wakeup per unit for
+ * entries on the same boundaries, no thread per entry.
+ *
+ * A tick locks only the region of the segments that changed and repaints the
+ * entries in it, the others keep their pixels. Entries can be added, moved and
+ * removed at any time without touching the surface.
+ *
+ * Styled like {@link EasyCountDownTextureView}, the attributes of the board are
+ * the default style of its entries. Transitions are not drawn.
+ */
+public class EasyCountDownBoardView extends TextureView
+    implements TextureView.SurfaceTextureListener, EasyTickable {
+
+    private static final String TAG = EasyCountDownBoardView.class.getSimpleName();
+
+    private static final int DEFAULT_SUB_SECOND_WITHIN = 60;
+    // a pass per dirty region posts a buffer of its own, as many as the buffer queue holds
+    private static final int MAX_DIRTY_RECTS = 3;
+
+    // null for EasyTicker.getDefault()
+    private volatile EasyTicker ticker;
+    private final Object registerLock = new Object();
+    // unregistered from even if the default changed since, guarded by registerLock
+    private EasyTicker registeredTicker;
+    // moves with every registration, a tick that stops keeps a newer one
+    private volatile int registerCount = 0;
+
+    private final Object tickLock = new Object();
+
+    // the default style, only touched under tickLock
+    private EasyCountDownRenderer renderer;
+    // by style resource
+    private final SparseArray<EasyCountDownRenderer> styleRenderers = new SparseArray<>();
+    // easyCountSubSecondWithin of the board, and by style resource
+    private int subSecondWithin = DEFAULT_SUB_SECOND_WITHIN;
+    private final SparseIntArray styleSubSecondWithins = new SparseIntArray();
+    private final ArrayList<Entry> entries = new ArrayList<>();
+
+    /****************
+     * Dirty region *
+     ****************/
+    // far apart changes stay apart, the entries between them keep their pixels
+    private final Rect[] dirtyRects = { new Rect(), new Rect(), new Rect() };
+    private int dirtyRectCount = 0;
+    // locked by a pass, grown by the surface
+    private final Rect lockRect = new Rect();
+    // left by removed and moved entries, cleared by the next draw
+    private final Rect vacatedRect = new Rect();
+    private final Rect segmentBounds = new Rect();
+    // after surface or size changes
+    private volatile boolean fullRedraw = true;
+
+    private volatile int backdropColor = Color.TRANSPARENT;
+
+    private volatile boolean surfaceAvailable = false;
+    // hidden, ticks only for the completions and draws nothing
+    private volatile boolean renderSuspended = false;
+
+
+    /**
+     * One count down on the board, changed only through the board
+     */
+    public static final class Entry {
+
+        // elapsed realtime
+        private long deadline;
+        private int x;
+        private int y;
+        @NonNull private EasyCountDownRenderer renderer;
+        // a fraction of a second is drawn every frame within this time left
+        private final long frameTicksWithin;
+
+        private final int[] values = new int[EasyCountDownRenderer.SEGMENT_COUNT];
+        private final int[] lastDrawnValues = new int[EasyCountDownRenderer.SEGMENT_COUNT];
+        // in view coordinates
+        private final Rect bounds = new Rect();
+        private boolean drawn = false;
+        private boolean completed = false;
+
+
+        private Entry(final long deadline,
+                      final int x,
+                      final int y,
+                      @NonNull final EasyCountDownRenderer renderer,
+                      final long frameTicksWithin) {
+            this.deadline = deadline;
+            this.x = x;
+            this.y = y;
+            this.renderer = renderer;
+            this.frameTicksWithin = renderer.hasSubSecond() ? frameTicksWithin : 0L;
+            this.refitBounds();
+        }
+
+
+        private void refitBounds() {
+            this.renderer.getSegmentBounds(this.renderer.getFirstSegment(), this.bounds);
+            this.bounds.offset(this.x, this.y);
+            this.drawn = false;
+        }
+
+
+        public long getDeadline() {
+            return this.deadline;
+        }
+
+
+        public int getX() {
+            return this.x;
+        }
+
+
+        public int getY() {
+            return this.y;
+        }
+
+    }
+
+
+    public interface OnEntryCompletedListener {
+
+        /**
+         * When the deadline of an entry is reached, on the main thread
+         *
+         * @param entry entry, still on the board
+         */
+        void onEntryCompleted(@NonNull Entry entry);
+
+    }
+
+
+    static class MainHandler extends Handler {
+
+        static final int WHAT_ENTRY_COMPLETED = 0x2C;
+
+        private volatile WeakReference<OnEntryCompletedListener> listenerReference;
+
+
+        MainHandler() {
+            super(Looper.getMainLooper());
+        }
+
+
+        void setListener(@Nullable final OnEntryCompletedListener onEntryCompletedListener) {
+            this.listenerReference = onEntryCompletedListener == null
+                                     ? null
+                                     : new WeakReference<>(onEntryCompletedListener);
+        }
+
+
+        /**
+         * Called on the {@link EasyTicker} thread, pooled messages
+         */
+        void postCompleted(@NonNull final Entry entry) {
+            if (this.listenerReference == null) return;
+            this.obtainMessage(WHAT_ENTRY_COMPLETED, entry).sendToTarget();
+        }
+
+
+        @Override
+        public void dispatchMessage(Message msg) {
+            switch (msg.what) {
+                case WHAT_ENTRY_COMPLETED:
+                    final WeakReference<OnEntryCompletedListener> listenerReference
+                        = this.listenerReference;
+                    if (listenerReference == null) return;
+                    final OnEntryCompletedListener onEntryCompletedListener
+                        = listenerReference.get();
+                    if (onEntryCompletedListener == null) return;
+                    onEntryCompletedListener.onEntryCompleted((Entry) msg.obj);
+                    break;
+            }
+        }
+
+    }
+
+
+    private final MainHandler mainHandler = new MainHandler();
+
+
+    public EasyCountDownBoardView(Context context) {
+        super(context);
+        this.init(context, null);
+    }
+
+
+    public EasyCountDownBoardView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        this.init(context, attrs);
+    }
+
+
+    public EasyCountDownBoardView(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        this.init(context, attrs);
+    }
+
+
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    public EasyCountDownBoardView(Context context, AttributeSet attrs, int defStyleAttr, int defStyleRes) {
+        super(context, attrs, defStyleAttr, defStyleRes);
+        this.init(context, attrs);
+    }
+
+
+    private void init(Context context, AttributeSet attrs) {
+        this.setSurfaceTextureListener(this);
+
+        TypedArray typedArray = context.obtainStyledAttributes(attrs,
+            R.styleable.EasyCountDownTextureView);
+        this.backdropColor = typedArray.getColor(
+            R.styleable.EasyCountDownTextureView_easyCountBackdropColor, Color.TRANSPARENT);
+        this.setOpaque(Color.alpha(this.backdropColor) == 0xFF);
+        this.renderer = new EasyCountDownRenderer(this.getResources().getDisplayMetrics(),
+            typedArray);
+        this.subSecondWithin = typedArray.getInteger(
+            R.styleable.EasyCountDownTextureView_easyCountSubSecondWithin,
+            DEFAULT_SUB_SECOND_WITHIN);
+        typedArray.recycle();
+    }
+
+
+    /***********
+     * Entries *
+     ***********/
+
+    /**
+     * Add an entry in the style of the board
+     *
+     * @param deadline SystemClock.elapsedRealtime() time
+     * @param x left of the boxes, in pixels of this view
+     * @param y top of the boxes, in pixels of this view
+     * @return entry
+     */
+    @NonNull
+    public Entry addEntry(final long deadline, final int x, final int y) {
+        return this.addEntry(deadline, x, y, 0);
+    }
+
+
+    /**
+     * Add an entry, drawn on the next tick
+     *
+     * @param deadline SystemClock.elapsedRealtime() time
+     * @param x left of the boxes, in pixels of this view
+     * @param y top of the boxes, in pixels of this view
+     * @param styleRes a style of easyCount* attributes, 0 for the style of the board
+     * @return entry
+     */
+    @NonNull
+    public Entry addEntry(final long deadline,
+                          final int x,
+                          final int y,
+                          @StyleRes final int styleRes) {
+        final Entry entry;
+        synchronized (this.tickLock) {
+            final EasyCountDownRenderer renderer = this.getStyleRenderer(styleRes);
+            final int subSecondWithin = styleRes == 0
+                                        ? this.subSecondWithin
+                                        : this.styleSubSecondWithins.get(styleRes);
+            entry = new Entry(deadline, x, y, renderer, subSecondWithin * EasyTime.ONE_SECOND);
+            this.entries.add(entry);
+        }
+        this.registerTick();
+        return entry;
+    }
+
+
+    /**
+     * One renderer per style, shared by its entries
+     */
+    @NonNull
+    private EasyCountDownRenderer getStyleRenderer(@StyleRes final int styleRes) {
+        if (styleRes == 0) return this.renderer;
+        EasyCountDownRenderer styleRenderer = this.styleRenderers.get(styleRes);
+        if (styleRenderer == null) {
+            final TypedArray typedArray = this.getContext().obtainStyledAttributes(null,
+                R.styleable.EasyCountDownTextureView, 0, styleRes);
+            styleRenderer = new EasyCountDownRenderer(this.getResources().getDisplayMetrics(),
+                typedArray);
+            this.styleSubSecondWithins.put(styleRes, typedArray.getInteger(
+                R.styleable.EasyCountDownTextureView_easyCountSubSecondWithin,
+                DEFAULT_SUB_SECOND_WITHIN));
+            typedArray.recycle();
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+                styleRenderer.setRtl(this.getLayoutDirection() == LAYOUT_DIRECTION_RTL);
+            }
+            this.styleRenderers.put(styleRes, styleRenderer);
+        }
+        return styleRenderer;
+    }
+
+
+    public void removeEntry(@NonNull final Entry entry) {
+        synchronized (this.tickLock) {
+            if (!this.entries.remove(entry)) return;
+            this.vacatedRect.union(entry.bounds);
+        }
+        this.registerTick();
+    }
+
+
+    public void clearEntries() {
+        synchronized (this.tickLock) {
+            this.entries.clear();
+            this.vacatedRect.setEmpty();
+            this.fullRedraw = true;
+        }
+        this.registerTick();
+    }
+
+
+    /**
+     * @param entry entry
+     * @param deadline SystemClock.elapsedRealtime() time, a completed entry counts down again
+     */
+    public void setEntryDeadline(@NonNull final Entry entry, final long deadline) {
+        synchronized (this.tickLock) {
+            entry.deadline = deadline;
+            entry.completed = false;
+        }
+        this.registerTick();
+    }
+
+
+    /**
+     * @param entry entry
+     * @param x left of the boxes, in pixels of this view
+     * @param y top of the boxes, in pixels of this view
+     */
+    public void moveEntry(@NonNull final Entry entry, final int x, final int y) {
+        synchronized (this.tickLock) {
+            if (!this.entries.contains(entry)) return;
+            this.vacatedRect.union(entry.bounds);
+            entry.x = x;
+            entry.y = y;
+            entry.refitBounds();
+        }
+        this.registerTick();
+    }
+
+
+    public int getEntryCount() {
+        synchronized (this.tickLock) {
+            return this.entries.size();
+        }
+    }
+
+
+    /**
+     * @param entry entry
+     * @param bounds out, the boxes of the entry in pixels of this view
+     */
+    public void getEntryBounds(@NonNull final Entry entry, @NonNull final Rect bounds) {
+        synchronized (this.tickLock) {
+            bounds.set(entry.bounds);
+        }
+    }
+
+
+    /**
+     * Fill the surface with color behind the entries. An opaque color makes
+     * the surface opaque, composited without blending
+     *
+     * @param backdropColor backdropColor, {@link Color#TRANSPARENT} by default
+     */
+    public void setBackdropColor(final int backdropColor) {
+        synchronized (this.tickLock) {
+            this.backdropColor = backdropColor;
+            this.fullRedraw = true;
+        }
+        this.setOpaque(Color.alpha(backdropColor) == 0xFF);
+        this.registerTick();
+    }
+
+
+    public void setOnEntryCompletedListener(
+        @Nullable final OnEntryCompletedListener onEntryCompletedListener) {
+        this.mainHandler.setListener(onEntryCompletedListener);
+    }
+
+
+    /**
+     * Tick and draw on the thread of ticker instead of the default one
+     *
+     * @param ticker ticker, null for {@link EasyTicker#getDefault()}
+     */
+    public void setTicker(@Nullable final EasyTicker ticker) {
+        synchronized (this.registerLock) {
+            final boolean ticking = this.registeredTicker != null;
+            if (ticking) this.unregisterTick();
+            this.ticker = ticker;
+            if (ticking) this.registerTick();
+        }
+    }
+
+
+    @NonNull
+    public EasyTicker getTicker() {
+        final EasyTicker ticker = this.ticker;
+        return ticker != null ? ticker : EasyTicker.getDefault();
+    }
+
+
+    /**
+     * Due right away, parked until onSurfaceTextureAvailable
+     */
+    private void registerTick() {
+        synchronized (this.registerLock) {
+            if (!this.surfaceAvailable) return;
+            final EasyTicker ticker = this.getTicker();
+            final EasyTicker registeredTicker = this.registeredTicker;
+            if (registeredTicker != null && registeredTicker != ticker) {
+                registeredTicker.unregister(this);
+            }
+            this.registeredTicker = ticker;
+            this.registerCount++;
+            ticker.register(this);
+        }
+    }
+
+
+    private void unregisterTick() {
+        synchronized (this.registerLock) {
+            final EasyTicker registeredTicker = this.registeredTicker;
+            if (registeredTicker == null) return;
+            this.registeredTicker = null;
+            registeredTicker.unregister(this);
+        }
+    }
+
+
+    /**
+     * The tick returns {@link #TICK_STOP} and the ticker drops this board, unless it
+     * was registered again since the tick began
+     *
+     * @param registerCount registerCount when the tick began
+     * @return {@link #TICK_STOP}
+     */
+    private long stopTick(final int registerCount) {
+        synchronized (this.registerLock) {
+            if (registerCount == this.registerCount) this.registeredTicker = null;
+        }
+        return TICK_STOP;
+    }
+
+
+    /**********
+     * Window *
+     **********/
+
+    @Override
+    public void onRtlPropertiesChanged(int layoutDirection) {
+        super.onRtlPropertiesChanged(layoutDirection);
+        // called while resolving attributes, before init
+        if (this.renderer == null) return;
+        synchronized (this.tickLock) {
+            final boolean rtl = layoutDirection == LAYOUT_DIRECTION_RTL;
+            this.renderer.setRtl(rtl);
+            for (int i = 0; i < this.styleRenderers.size(); i++) {
+                this.styleRenderers.valueAt(i).setRtl(rtl);
+            }
+            for (int i = 0; i < this.entries.size(); i++) {
+                this.entries.get(i).refitBounds();
+            }
+            this.fullRedraw = true;
+        }
+        this.registerTick();
+    }
+
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        this.updateRenderSuspended();
+    }
+
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        synchronized (this.tickLock) {
+            // completions not delivered yet are posted again by the first tick after reattach
+            for (int i = 0; i < this.entries.size(); i++) {
+                final Entry entry = this.entries.get(i);
+                if (entry.completed && this.mainHandler.hasMessages(
+                    MainHandler.WHAT_ENTRY_COMPLETED, entry)) {
+                    entry.completed = false;
+                }
+            }
+            this.mainHandler.removeCallbacksAndMessages(null);
+        }
+        this.updateRenderSuspended();
+    }
+
+
+    @Override
+    protected void onVisibilityChanged(@NonNull View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        this.updateRenderSuspended();
+    }
+
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        this.updateRenderSuspended();
+    }
+
+
+    /**
+     * Suspend drawing while this view, a parent or the window is not visible.
+     * The deadlines keep running, the board draws right away when it is shown again
+     */
+    private void updateRenderSuspended() {
+        // android:visibility is applied by the View constructor, before init
+        if (this.renderer == null) return;
+        final boolean suspended = this.getWindowVisibility() != VISIBLE || !this.isShown();
+        if (suspended == this.renderSuspended) return;
+        this.renderSuspended = suspended;
+        if (!suspended) {
+            this.fullRedraw = true;
+            this.registerTick();
+        }
+    }
+
+
+    public boolean isRenderSuspended() {
+        return this.renderSuspended;
+    }
+
+
+    @Override
+    public void onSurfaceTextureAvailable(SurfaceTexture surface, int width, int height) {
+        Log.i(TAG, "[onSurfaceTextureAvailable]");
+        this.fullRedraw = true;
+        this.surfaceAvailable = true;
+        this.registerTick();
+    }
+
+
+    @Override
+    public void onSurfaceTextureSizeChanged(SurfaceTexture surface, int width, int height) {
+        this.fullRedraw = true;
+        this.registerTick();
+    }
+
+
+    @Override
+    public boolean onSurfaceTextureDestroyed(SurfaceTexture surface) {
+        Log.i(TAG, "[onSurfaceTextureDestroyed]");
+        this.surfaceAvailable = false;
+        this.unregisterTick();
+        return true;
+    }
+
+
+    @Override
+    public void onSurfaceTextureUpdated(SurfaceTexture surface) {
+        // Nothing to do
+    }
+
+
+    /********
+     * Tick *
+     ********/
+
+    /**
+     * Called on the {@link EasyTicker} thread. Splits the time left of every entry,
+     * collects the segments that changed and draws them in one pass
+     *
+     * @param now elapsed realtime
+     * @return the earliest unit boundary of all entries, or the next frame for a fraction
+     */
+    @Override
+    public long onTick(final long now) {
+        final int registerCount = this.registerCount;
+        // park, onSurfaceTextureAvailable registers again
+        if (!this.surfaceAvailable) return this.stopTick(registerCount);
+        final boolean suspended = this.renderSuspended;
+        long nextTickTime = TICK_STOP;
+        boolean nextFrame = false;
+        synchronized (this.tickLock) {
+            final boolean fullRedraw = this.fullRedraw;
+            this.dirtyRectCount = 0;
+            this.addDirtyRect(this.vacatedRect);
+            for (int i = 0, size = this.entries.size(); i < size; i++) {
+                final Entry entry = this.entries.get(i);
+                final EasyCountDownRenderer renderer = entry.renderer;
+                final long timeLeft = Math.max(0L, entry.deadline - now);
+                final long tickUnit = renderer.getTickUnit();
+                final boolean frameTick = timeLeft < entry.frameTicksWithin;
+                if (!suspended) {
+                    // per unit the smaller units stay 0, a fraction is drawn every frame
+                    renderer.splitTime(frameTick
+                                       ? timeLeft
+                                       : EasyTime.ceilUnits(timeLeft, tickUnit), entry.values);
+                    final int fromSegment = this.getChangedSegment(entry, fullRedraw);
+                    if (fromSegment <= renderer.getLastSegment()) {
+                        renderer.getSegmentBounds(fromSegment, this.segmentBounds);
+                        this.segmentBounds.offset(entry.x, entry.y);
+                        this.addDirtyRect(this.segmentBounds);
+                    }
+                }
+                if (timeLeft == 0) {
+                    if (!entry.completed) {
+                        entry.completed = true;
+                        this.mainHandler.postCompleted(entry);
+                    }
+                    continue;
+                }
+                final long entryTickTime;
+                if (suspended) {
+                    // wake up only for the completion
+                    entryTickTime = entry.deadline;
+                } else if (frameTick) {
+                    nextFrame = true;
+                    continue;
+                } else {
+                    // the next unit boundary, missed units are skipped
+                    final long unitsLeft = (timeLeft + tickUnit - 1) / tickUnit;
+                    entryTickTime = entry.deadline - (unitsLeft - 1) * tickUnit;
+                }
+                nextTickTime = nextTickTime == TICK_STOP
+                               ? entryTickTime
+                               : Math.min(nextTickTime, entryTickTime);
+            }
+            if (!suspended && (fullRedraw || this.dirtyRectCount > 0)) {
+                this.drawEntries(fullRedraw);
+            }
+        }
+        if (nextFrame) return TICK_NEXT_FRAME;
+        return nextTickTime == TICK_STOP ? this.stopTick(registerCount) : nextTickTime;
+    }
+
+
+    /**
+     * Merge rect into the dirty region it wastes the least area with, or keep it apart
+     * while that costs more than a region of its own
+     */
+    private void addDirtyRect(@NonNull final Rect rect) {
+        if (rect.isEmpty()) return;
+        int bestIndex = -1;
+        long bestWaste = Long.MAX_VALUE;
+        for (int i = 0; i < this.dirtyRectCount; i++) {
+            final Rect dirtyRect = this.dirtyRects[i];
+            final long unionArea = area(Math.min(dirtyRect.left, rect.left),
+                Math.min(dirtyRect.top, rect.top), Math.max(dirtyRect.right, rect.right),
+                Math.max(dirtyRect.bottom, rect.bottom));
+            final long waste = unionArea - area(dirtyRect.left, dirtyRect.top,
+                dirtyRect.right, dirtyRect.bottom) - area(rect.left, rect.top, rect.right,
+                rect.bottom);
+            if (waste < bestWaste) {
+                bestWaste = waste;
+                bestIndex = i;
+            }
+        }
+        // overlapping or touching, one pass covers both for free
+        if (bestIndex >= 0 && (bestWaste <= 0 || this.dirtyRectCount == MAX_DIRTY_RECTS)) {
+            this.dirtyRects[bestIndex].union(rect);
+            return;
+        }
+        this.dirtyRects[this.dirtyRectCount++].set(rect);
+    }
+
+
+    private static long area(final int left, final int top, final int right, final int bottom) {
+        return (long) (right - left) * (bottom - top);
+    }
+
+
+    /**
+     * @return the first segment that differs from the last draw of the entry, after
+     * the last one if none
+     */
+    private int getChangedSegment(@NonNull final Entry entry, final boolean fullRedraw) {
+        final int lastSegment = entry.renderer.getLastSegment();
+        int fromSegment = entry.renderer.getFirstSegment();
+        if (fullRedraw || !entry.drawn) return fromSegment;
+        while (fromSegment <= lastSegment &&
+            entry.values[fromSegment] == entry.lastDrawnValues[fromSegment]) {
+            fromSegment++;
+        }
+        return fromSegment;
+    }
+
+
+    /**
+     * Repaint the dirty regions, each in a pass of its own, so the entries between
+     * them are not repainted. A full redraw is one pass over the whole surface
+     */
+    private void drawEntries(final boolean fullRedraw) {
+        if (fullRedraw) {
+            if (!this.drawPass(null)) return;
+            this.fullRedraw = false;
+        } else {
+            for (int i = 0; i < this.dirtyRectCount; i++) {
+                this.lockRect.set(this.dirtyRects[i]);
+                if (!this.drawPass(this.lockRect)) return;
+            }
+        }
+        this.vacatedRect.setEmpty();
+    }
+
+
+    /**
+     * Lock the dirty region, clear it and repaint every entry in it. The surface
+     * may grow the region, then the entries in the grown region are repainted too
+     *
+     * @param dirtyRect region to lock, null for the whole surface
+     * @return true if drawn
+     */
+    private boolean drawPass(@Nullable final Rect dirtyRect) {
+        Canvas canvas = null;
+        try {
+            // grown by the surface if it could not keep the old pixels
+            canvas = dirtyRect == null ? this.lockCanvas() : this.lockCanvas(dirtyRect);
+            if (canvas == null) return false;
+            // clipped to the dirty region, transparent clears
+            canvas.drawColor(this.backdropColor, PorterDuff.Mode.SRC);
+            for (int i = 0, size = this.entries.size(); i < size; i++) {
+                final Entry entry = this.entries.get(i);
+                if (dirtyRect != null && !Rect.intersects(entry.bounds, dirtyRect)) continue;
+                // absolute coordinates of the renderer, moved to the entry and back
+                canvas.translate(entry.x, entry.y);
+                entry.renderer.drawTimeAndBackground(canvas, entry.values,
+                    entry.renderer.getFirstSegment());
+                canvas.translate(-entry.x, -entry.y);
+                System.arraycopy(entry.values, 0, entry.lastDrawnValues, 0,
+                    EasyCountDownRenderer.SEGMENT_COUNT);
+                entry.drawn = true;
+            }
+            return true;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        } finally {
+            if (canvas != null) {
+                try {
+                    this.unlockCanvasAndPost(canvas);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,449 @@
+/*
+ * Copyright (C) 2016 CaMnter yuanyu.camnter@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.camnter.easycountdowntextureview;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Description：EasyCountDownController
+ * Created by：CaMnter
+ *
+ * Everything both count down views do besides drawing, without Android: the
+ * {@link EasyCountDownEngine}, the registration on a ticker or a group, start,
+ * stop, pause and resume, the recorded deadline and whether the time is drawn.
+ * A view forwards its surface or window and its visibility, and draws the time
+ * it is given on the ticker thread.
+ *
+ * Attaching and detaching are symmetric: a count down keeps running without a
+ * surface or window, it only draws nothing. The first attach starts a count down
+ * that was never started.
+ */
+final class EasyCountDownController implements EasyCountDownEngine.Callback {
+
+    interface Host {
+
+        /**
+         * Before a start, on the calling thread
+         */
+        void onTimeReset();
+
+        /**
+         * On the ticker thread, only while attached and shown
+         *
+         * @param timeLeft time left to draw
+         * @param frameTick true if ticking on every frame
+         */
+        void onTimeChanged(long timeLeft, boolean frameTick);
+
+        /**
+         * @return the ticker to register on while not in a group
+         */
+        @NonNull
+        EasyTickRegistry getTicker();
+
+    }
+
+
+    interface Listener {
+
+        void onCountDownStart();
+
+        void onCountDownTimeError();
+
+        void onCountDownStop(long millisInFuture);
+
+        /**
+         * After a start or resume, the next tick is reported even in the same unit
+         */
+        void resetTick();
+
+        /**
+         * On the ticker thread with every tick, also while nothing is drawn
+         *
+         * @param timeLeft drawn time left
+         */
+        void postTick(long timeLeft);
+
+        /**
+         * On the ticker thread, or on the calling thread for a restored deadline that passed
+         */
+        void postCompleted();
+
+        /**
+         * @return true if someone wants the ticks of a hidden count down
+         */
+        boolean hasTickListener();
+
+    }
+
+
+    // all timing state, the view only renders it
+    private final EasyCountDownEngine engine;
+    // registered on the ticker or the group, the view
+    private final EasyTickable tickable;
+    private final Host host;
+    private final Listener listener;
+
+    // ticks with the group instead of on its own
+    private volatile EasyTickRegistry group;
+    // registration follows the engine state, also for racing start, stop, pause and resume
+    private final Object registerLock = new Object();
+    // unregistered from even if the ticker changed since, guarded by registerLock
+    private EasyTickRegistry registeredTicker;
+
+    // without a surface or window the count down runs on and draws nothing
+    private volatile boolean attached = false;
+    // the view, a parent or the window is not visible
+    private volatile boolean hidden = false;
+    // the first attach starts a count down that was never started
+    private volatile boolean started = false;
+
+    private volatile boolean autoResume = true;
+    private volatile long recordedDeadline = 0L;
+
+
+    EasyCountDownController(@NonNull final EasyClock clock,
+                            @NonNull final EasyTickable tickable,
+                            @NonNull final Host host,
+                            @NonNull final Listener listener) {
+        this.engine = new EasyCountDownEngine(clock);
+        this.engine.setCallback(this);
+        this.tickable = tickable;
+        this.host = host;
+        this.listener = listener;
+    }
+
+
+    @NonNull
+    EasyCountDownEngine getEngine() {
+        return this.engine;
+    }
+
+
+    @NonNull
+    EasyTickable getTickable() {
+        return this.tickable;
+    }
+
+
+    boolean isRunning() {
+        return this.engine.isRunning();
+    }
+
+
+    boolean isPaused() {
+        return this.engine.getState() == EasyCountDownEngine.STATE_PAUSED;
+    }
+
+
+    /**
+     * @return true while hidden, or without a surface or window
+     */
+    boolean isRenderSuspended() {
+        return !this.attached || this.hidden;
+    }
+
+
+    boolean isHidden() {
+        return this.hidden;
+    }
+
+
+    void setAutoResume(final boolean autoResume) {
+        this.autoResume = autoResume;
+    }
+
+
+    void setTime(final long timeMillis) {
+        this.engine.setTime(timeMillis);
+    }
+
+
+    /**
+     * @param deadline on the clock of the engine
+     */
+    void setDeadline(final long deadline) {
+        this.engine.setDeadline(deadline);
+    }
+
+
+    /**
+     * @param tickInterval the unit of the last box
+     * @param frameTicksWithin tick on every frame once less time than this is left
+     */
+    void setTickInterval(final long tickInterval, final long frameTicksWithin) {
+        this.engine.setTickInterval(tickInterval);
+        this.engine.setFrameTicksWithin(frameTicksWithin);
+        if (this.engine.isRunning()) this.registerTick();
+    }
+
+
+    /**
+     * The surface or window is there. A running count down draws right away, one that
+     * was never started starts, a recorded deadline is restored
+     */
+    void attach() {
+        this.attached = true;
+        if (this.engine.isRunning()) {
+            if (!this.hidden) this.redraw();
+        } else if (this.engine.getState() == EasyCountDownEngine.STATE_IDLE &&
+            (!this.started || this.recordedDeadline > 0)) {
+            this.startAndRestoreTime();
+        }
+    }
+
+
+    /**
+     * The surface or window is gone, the count down runs on and still completes
+     */
+    void detach() {
+        this.attached = false;
+    }
+
+
+    /**
+     * @param hidden the view, a parent or the window is not visible
+     */
+    void setHidden(final boolean hidden) {
+        if (hidden == this.hidden) return;
+        this.hidden = hidden;
+        if (!hidden && this.attached && this.engine.isRunning()) this.redraw();
+    }
+
+
+    /**
+     * A tick listener was set or removed, a hidden count down sleeps until the deadline
+     * only without one
+     */
+    void refitTickListener() {
+        if (this.isRenderSuspended() && this.engine.isRunning()) this.registerTick();
+    }
+
+
+    /**
+     * Due right away, not measured as late
+     */
+    private void redraw() {
+        this.engine.resetTickSchedule();
+        this.registerTick();
+    }
+
+
+    void start() {
+        if (this.engine.isRunning()) return;
+        this.started = true;
+        this.host.onTimeReset();
+        if (this.engine.start()) {
+            this.listener.resetTick();
+            // also without a surface or window, to complete on time
+            this.registerTick();
+            this.listener.onCountDownStart();
+        } else {
+            this.listener.onCountDownTimeError();
+        }
+    }
+
+
+    void stop() {
+        if (!this.engine.stop()) return;
+        this.releaseTick();
+        this.listener.onCountDownStop(this.engine.getTimeLeft());
+    }
+
+
+    void pause() {
+        if (!this.engine.pause()) return;
+        this.releaseTick();
+    }
+
+
+    void resume() {
+        if (!this.engine.resume()) return;
+        this.listener.resetTick();
+        this.registerTick();
+    }
+
+
+    void stopAndRecordTime() {
+        final long deadline = this.engine.getDeadline();
+        this.stop();
+        if (this.autoResume && deadline > 0) {
+            this.recordedDeadline = deadline;
+        }
+    }
+
+
+    void startAndRestoreTime() {
+        final long recordedDeadline = this.recordedDeadline;
+        if (recordedDeadline > 0) {
+            this.recordedDeadline = 0L;
+            this.engine.setDeadline(recordedDeadline);
+            // passed while stopped, a completion and no time error
+            if (recordedDeadline <= this.engine.getClock().now()) {
+                this.started = true;
+                this.engine.complete();
+                return;
+            }
+        }
+        this.start();
+    }
+
+
+    /**
+     * @return the deadline to save, also one recorded while stopped, 0 for none
+     */
+    long getSavedDeadline() {
+        final long deadline = this.engine.getDeadline();
+        return deadline > 0 ? deadline : this.recordedDeadline;
+    }
+
+
+    /**
+     * @param deadline saved deadline, 0 for none
+     * @param timeLeft saved time left
+     * @param paused paused stays paused, no auto start
+     */
+    void restoreState(final long deadline, final long timeLeft, final boolean paused) {
+        if (paused) {
+            // resume() runs on from it
+            this.engine.setPausedTime(timeLeft);
+        } else if (deadline <= 0) {
+            this.engine.setTime(timeLeft);
+        } else if (this.engine.isRunning()) {
+            this.engine.setDeadline(deadline);
+        } else {
+            // picked up by startAndRestoreTime
+            this.recordedDeadline = deadline;
+        }
+    }
+
+
+    /**
+     * Called by {@link EasyCountDownGroup}, moves a running count down into or out of it
+     *
+     * @param group group, null to tick on its own
+     */
+    void setGroup(@Nullable final EasyTickRegistry group) {
+        synchronized (this.registerLock) {
+            final boolean ticking = this.engine.isRunning();
+            if (ticking) this.unregisterTick();
+            this.group = group;
+            if (ticking) this.registerTick();
+        }
+    }
+
+
+    /**
+     * The ticker of the host changed, a running count down moves over
+     */
+    void refitTicker() {
+        synchronized (this.registerLock) {
+            if (this.engine.isRunning() && this.group == null) this.registerTick();
+        }
+    }
+
+
+    void registerTick() {
+        synchronized (this.registerLock) {
+            // stopped or paused by a racing call, which unregisters after us
+            if (!this.engine.isRunning()) return;
+            final EasyTickRegistry group = this.group;
+            if (group != null) {
+                group.register(this.tickable);
+                return;
+            }
+            final EasyTickRegistry ticker = this.host.getTicker();
+            final EasyTickRegistry registeredTicker = this.registeredTicker;
+            if (registeredTicker != null && registeredTicker != ticker) {
+                registeredTicker.unregister(this.tickable);
+            }
+            this.registeredTicker = ticker;
+            ticker.register(this.tickable);
+        }
+    }
+
+
+    private void unregisterTick() {
+        synchronized (this.registerLock) {
+            final EasyTickRegistry group = this.group;
+            if (group != null) {
+                group.unregister(this.tickable);
+                return;
+            }
+            final EasyTickRegistry registeredTicker = this.registeredTicker;
+            if (registeredTicker == null) return;
+            this.registeredTicker = null;
+            registeredTicker.unregister(this.tickable);
+        }
+    }
+
+
+    /**
+     * Unregister after the engine stopped or paused, unless a racing start or
+     * resume made it run again before the lock
+     */
+    void releaseTick() {
+        synchronized (this.registerLock) {
+            this.unregisterTick();
+            if (this.engine.isRunning()) this.registerTick();
+        }
+    }
+
+
+    /**
+     * Called on the ticker thread by the tickable
+     *
+     * @param now current time of the clock
+     * @return the time of the next tick
+     */
+    long onTick(final long now) {
+        // hidden, wake up only for the completion unless a tick listener wants the time
+        return this.engine.onTick(now,
+            this.isRenderSuspended() && !this.listener.hasTickListener());
+    }
+
+
+    /**
+     * Called on the ticker thread by the engine
+     *
+     * @param engine engine
+     * @param timeLeft exact time left
+     */
+    @Override
+    public void onTick(@NonNull final EasyCountDownEngine engine, final long timeLeft) {
+        // per unit the smaller units stay 0, per frame the seconds are rounded down
+        final boolean frameTick = engine.isFrameTick(timeLeft);
+        final long drawnTimeLeft = frameTick
+                                   ? timeLeft
+                                   : EasyTime.ceilUnits(timeLeft, engine.getTickInterval());
+        if (!this.isRenderSuspended()) this.host.onTimeChanged(drawnTimeLeft, frameTick);
+        this.listener.postTick(drawnTimeLeft);
+    }
+
+
+    /**
+     * Called on the ticker thread by the engine
+     *
+     * @param engine engine
+     */
+    @Override
+    public void onCompleted(@NonNull final EasyCountDownEngine engine) {
+        this.listener.postCompleted();
+    }
+
+}
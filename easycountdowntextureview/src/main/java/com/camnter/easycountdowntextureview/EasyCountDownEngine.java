@@ -0,0 +1,530 @@
+/*
+ * Copyright (C) 2016 CaMnter yuanyu.camnter@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.camnter.easycountdowntextureview;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Description：EasyCountDownEngine
+ * Created by：CaMnter
+ *
+ * The timing of one count down without any view: explicit states, an
+ * absolute deadline on an injectable {@link EasyClock}, and tick/complete
+ * callbacks. As an {@link EasyTickable} it can be driven by an
+ * {@link EasyTicker} on a device, or by an {@link EasyTickQueue} and a fake
+ * clock on the plain JVM.
+ *
+ * The state and the deadline or time left are packed into one long and only
+ * changed by compare-and-set. No call blocks or allocates, and every transition
+ * reads the clock against the state it replaces, so elapsed time is counted
+ * exactly once however many threads call start, stop, pause and resume.
+ */
+public class EasyCountDownEngine implements EasyTickable {
+
+    public static final int STATE_IDLE = 0;
+    public static final int STATE_RUNNING = 1;
+    public static final int STATE_PAUSED = 2;
+    public static final int STATE_COMPLETED = 3;
+
+    /**
+     * A late tick reports the time left right now, the next tick stays aligned to the deadline
+     */
+    public static final int CATCH_UP_SKIP = 0;
+    /**
+     * A late tick reports the time left right now, the next tick comes one interval later
+     */
+    public static final int CATCH_UP_DELAY = 1;
+
+    private static final long DEFAULT_TICK_INTERVAL = EasyTime.ONE_SECOND;
+
+    /**********
+     * Packed *
+     **********/
+    // the low bits hold the state and the deadline flag, the rest the deadline while running,
+    // otherwise the time left
+    private static final int STATE_BITS = 3;
+    private static final long STATE_MASK = 3L;
+    // idle with a deadline on the clock instead of a time left, set by setDeadline
+    private static final long DEADLINE_FLAG = 4L;
+
+    private static final AtomicLongFieldUpdater<EasyCountDownEngine> PACKED
+        = AtomicLongFieldUpdater.newUpdater(EasyCountDownEngine.class, "packed");
+
+    private final EasyClock clock;
+
+    private volatile long packed = pack(STATE_IDLE, 0L);
+
+    private volatile long tickInterval = DEFAULT_TICK_INTERVAL;
+    private volatile int catchUpPolicy = CATCH_UP_SKIP;
+    // tick on every frame once less time than this is left, 0 for never
+    private volatile long frameTicksWithin = 0L;
+
+    // the time returned by the last timed tick, 0 if none
+    private volatile long scheduledTickTime = 0L;
+    // ticks come this much after the unit boundaries of the deadline, set by alignTickPhase
+    private volatile long tickOffset = 0L;
+
+    private final EasyRenderMetrics metrics = new EasyRenderMetrics();
+
+    private volatile Callback callback;
+
+
+    public interface Callback {
+
+        /**
+         * When a tick is due, also right before {@link #onCompleted(EasyCountDownEngine)}
+         *
+         * @param engine engine
+         * @param timeLeft exact time left, shifted by the phase offset of a group on timed ticks
+         */
+        void onTick(@NonNull EasyCountDownEngine engine, long timeLeft);
+
+        /**
+         * When the deadline is reached
+         *
+         * @param engine engine
+         */
+        void onCompleted(@NonNull EasyCountDownEngine engine);
+
+    }
+
+
+    public EasyCountDownEngine(@NonNull final EasyClock clock) {
+        this.clock = clock;
+    }
+
+
+    private static long pack(final int state, final long value) {
+        return (value << STATE_BITS) | state;
+    }
+
+
+    private static long packDeadline(final long deadline) {
+        return pack(STATE_IDLE, deadline) | DEADLINE_FLAG;
+    }
+
+
+    private static int stateOf(final long packed) {
+        return (int) (packed & STATE_MASK);
+    }
+
+
+    // the deadline while running or flagged, otherwise the time left
+    private static long valueOf(final long packed) {
+        return packed >> STATE_BITS;
+    }
+
+
+    private static boolean hasDeadline(final long packed) {
+        return stateOf(packed) == STATE_RUNNING || (packed & DEADLINE_FLAG) != 0;
+    }
+
+
+    private long timeLeftOf(final long packed) {
+        if (hasDeadline(packed)) return Math.max(0L, valueOf(packed) - this.clock.now());
+        return valueOf(packed);
+    }
+
+
+    private boolean compareAndSet(final long expect, final long update) {
+        return PACKED.compareAndSet(this, expect, update);
+    }
+
+
+    public void setCallback(@Nullable final Callback callback) {
+        this.callback = callback;
+    }
+
+
+    @NonNull
+    public EasyClock getClock() {
+        return this.clock;
+    }
+
+
+    /**
+     * Tick jitter and missed ticks of this engine, renderers add their draw times
+     *
+     * @return metrics
+     */
+    @NonNull
+    public EasyRenderMetrics getMetrics() {
+        return this.metrics;
+    }
+
+
+    /**
+     * Set the time left, moves the deadline while running
+     *
+     * @param timeMillis timeMillis
+     */
+    public void setTime(final long timeMillis) {
+        long packed;
+        do {
+            packed = this.packed;
+        } while (!this.compareAndSet(packed, stateOf(packed) == STATE_RUNNING
+                                             ? pack(STATE_RUNNING, this.clock.now() + timeMillis)
+                                             : pack(this.getStoppedState(packed), timeMillis)));
+        this.scheduledTickTime = 0L;
+        this.tickOffset = 0L;
+    }
+
+
+    /**
+     * Set the deadline on the clock. A stopped engine keeps the deadline itself,
+     * however late {@link #start()} comes it completes on time. A paused one keeps
+     * the time left until it
+     *
+     * @param deadline deadline
+     */
+    public void setDeadline(final long deadline) {
+        long packed;
+        long update;
+        do {
+            packed = this.packed;
+            switch (this.getStoppedState(packed)) {
+                case STATE_RUNNING:
+                    update = pack(STATE_RUNNING, deadline);
+                    break;
+                case STATE_PAUSED:
+                    update = pack(STATE_PAUSED, deadline - this.clock.now());
+                    break;
+                default:
+                    update = packDeadline(deadline);
+                    break;
+            }
+        } while (!this.compareAndSet(packed, update));
+        this.scheduledTickTime = 0L;
+        this.tickOffset = 0L;
+    }
+
+
+    /**
+     * Paused with this time left whatever the state, for a paused count down
+     * restored after the process died
+     *
+     * @param timeLeft timeLeft
+     */
+    public void setPausedTime(final long timeLeft) {
+        long packed;
+        do {
+            packed = this.packed;
+        } while (!this.compareAndSet(packed, pack(STATE_PAUSED, timeLeft)));
+        this.scheduledTickTime = 0L;
+    }
+
+
+    /**
+     * A new time left makes a completed count down idle, a paused one stays paused
+     */
+    private int getStoppedState(final long packed) {
+        final int state = stateOf(packed);
+        return state == STATE_COMPLETED ? STATE_IDLE : state;
+    }
+
+
+    /**
+     * Run from the current time left, or to the deadline set while stopped
+     *
+     * @return false if already running, or no time is left
+     */
+    public boolean start() {
+        long packed;
+        long deadline;
+        do {
+            packed = this.packed;
+            if (stateOf(packed) == STATE_RUNNING) return false;
+            final long now = this.clock.now();
+            deadline = (packed & DEADLINE_FLAG) != 0 ? valueOf(packed) : now + valueOf(packed);
+            if (deadline <= now) return false;
+        } while (!this.compareAndSet(packed, pack(STATE_RUNNING, deadline)));
+        this.scheduledTickTime = 0L;
+        this.tickOffset = 0L;
+        return true;
+    }
+
+
+    /**
+     * Stop and keep the time left, {@link #start()} runs from it again
+     *
+     * @return false if neither running nor paused
+     */
+    public boolean stop() {
+        long packed;
+        long timeLeft;
+        do {
+            packed = this.packed;
+            final int state = stateOf(packed);
+            if (state == STATE_RUNNING) {
+                timeLeft = Math.max(0L, valueOf(packed) - this.clock.now());
+            } else if (state == STATE_PAUSED) {
+                timeLeft = valueOf(packed);
+            } else {
+                return false;
+            }
+        } while (!this.compareAndSet(packed, pack(STATE_IDLE, timeLeft)));
+        return true;
+    }
+
+
+    /**
+     * Complete a count down that is not running, for a deadline that passed while
+     * nothing ran it. The callback gets the last tick and the completion right away
+     *
+     * @return false if running or already completed
+     */
+    public boolean complete() {
+        long packed;
+        do {
+            packed = this.packed;
+            final int state = stateOf(packed);
+            if (state == STATE_RUNNING || state == STATE_COMPLETED) return false;
+        } while (!this.compareAndSet(packed, pack(STATE_COMPLETED, 0L)));
+        this.scheduledTickTime = 0L;
+        final Callback callback = this.callback;
+        if (callback != null) {
+            callback.onTick(this, 0L);
+            callback.onCompleted(this);
+        }
+        return true;
+    }
+
+
+    /**
+     * Freeze the time left
+     *
+     * @return false if not running
+     */
+    public boolean pause() {
+        long packed;
+        do {
+            packed = this.packed;
+            if (stateOf(packed) != STATE_RUNNING) return false;
+        } while (!this.compareAndSet(packed,
+            pack(STATE_PAUSED, Math.max(0L, valueOf(packed) - this.clock.now()))));
+        return true;
+    }
+
+
+    /**
+     * Run again from the frozen time left
+     *
+     * @return false if not paused
+     */
+    public boolean resume() {
+        long packed;
+        do {
+            packed = this.packed;
+            if (stateOf(packed) != STATE_PAUSED) return false;
+        } while (!this.compareAndSet(packed,
+            pack(STATE_RUNNING, this.clock.now() + valueOf(packed))));
+        this.scheduledTickTime = 0L;
+        this.tickOffset = 0L;
+        return true;
+    }
+
+
+    public int getState() {
+        return stateOf(this.packed);
+    }
+
+
+    public boolean isRunning() {
+        return this.getState() == STATE_RUNNING;
+    }
+
+
+    public long getTimeLeft() {
+        return this.timeLeftOf(this.packed);
+    }
+
+
+    /**
+     * @return the deadline on the clock while running or set while stopped, otherwise 0
+     */
+    public long getDeadline() {
+        final long packed = this.packed;
+        return hasDeadline(packed) ? valueOf(packed) : 0L;
+    }
+
+
+    /**
+     * Forget the scheduled tick, the next tick is not measured as late.
+     * For a driver that skipped ticks on purpose
+     */
+    public void resetTickSchedule() {
+        this.scheduledTickTime = 0L;
+    }
+
+
+    /**
+     * Where the ticks of a running engine fall within a second, or within the tick
+     * interval if it is no whole number of seconds. Engines of minutes and of seconds
+     * on the same phase still flip in the same tick
+     *
+     * @return 0..period - 1, -1 if not running
+     */
+    public long getTickPhase() {
+        final long packed = this.packed;
+        if (stateOf(packed) != STATE_RUNNING) return -1L;
+        final long period = this.getPhasePeriod();
+        return (((valueOf(packed) + this.tickOffset) % period) + period) % period;
+    }
+
+
+    /**
+     * Move the ticks by at most half a phase period onto phase, timers with the same
+     * phase flip in the same tick. The deadline stays, the reported time left is shifted
+     * by the same offset and the completion still comes at the deadline. Until the next
+     * start, resume or new time
+     *
+     * @param phase 0..period - 1
+     */
+    public void alignTickPhase(final long phase) {
+        final long packed = this.packed;
+        if (stateOf(packed) != STATE_RUNNING) return;
+        final long period = this.getPhasePeriod();
+        long offset = (((phase - valueOf(packed)) % period) + period) % period;
+        if (offset > period / 2) offset -= period;
+        this.tickOffset = offset;
+        this.scheduledTickTime = 0L;
+    }
+
+
+    private long getPhasePeriod() {
+        final long tickInterval = this.tickInterval;
+        return tickInterval % EasyTime.ONE_SECOND == 0 ? EasyTime.ONE_SECOND : tickInterval;
+    }
+
+
+    /**
+     * @param tickInterval the unit the display changes by, one second by default
+     */
+    public void setTickInterval(final long tickInterval) {
+        this.tickInterval = tickInterval;
+        this.scheduledTickTime = 0L;
+    }
+
+
+    public long getTickInterval() {
+        return this.tickInterval;
+    }
+
+
+    /**
+     * @param catchUpPolicy {@link #CATCH_UP_SKIP} or {@link #CATCH_UP_DELAY}
+     */
+    public void setCatchUpPolicy(final int catchUpPolicy) {
+        this.catchUpPolicy = catchUpPolicy;
+    }
+
+
+    /**
+     * @param frameTicksWithin tick on every display frame once less time than this is left,
+     * 0 for never
+     */
+    public void setFrameTicksWithin(final long frameTicksWithin) {
+        this.frameTicksWithin = frameTicksWithin;
+    }
+
+
+    /**
+     * @param timeLeft timeLeft
+     * @return true if the engine ticks on every frame with this much time left
+     */
+    public boolean isFrameTick(final long timeLeft) {
+        return timeLeft < this.frameTicksWithin;
+    }
+
+
+    /**
+     * Advance to now, derived from the deadline so a late tick never adds up.
+     * Only completing changes the state, and only if nothing else changed it first
+     *
+     * @param now current time of the clock
+     * @return the time of the next tick, {@link #TICK_NEXT_FRAME} or {@link #TICK_STOP}
+     */
+    @Override
+    public long onTick(final long now) {
+        return this.onTick(now, false);
+    }
+
+
+    /**
+     * A tick for a driver that shows nothing, hidden for example. The callback still
+     * gets it, but with untilDeadline the next tick is the completion, and that one is
+     * measured against the deadline instead of as late
+     *
+     * @param now current time of the clock
+     * @param untilDeadline skip every unit and frame until the deadline
+     * @return the time of the next tick, {@link #TICK_NEXT_FRAME} or {@link #TICK_STOP}
+     */
+    public long onTick(final long now, final boolean untilDeadline) {
+        final long tickInterval = this.tickInterval;
+        long packed;
+        long deadline;
+        long timeLeft;
+        do {
+            packed = this.packed;
+            if (stateOf(packed) != STATE_RUNNING) return TICK_STOP;
+            deadline = valueOf(packed);
+            timeLeft = Math.max(0L, deadline - now);
+        } while (timeLeft == 0 && !this.compareAndSet(packed, pack(STATE_COMPLETED, 0L)));
+
+        // on the phase of a group the units flip up to half a period off the deadline
+        final long tickOffset = this.tickOffset;
+        long reportedTimeLeft = timeLeft;
+        long nextTickTime;
+        if (timeLeft == 0) {
+            nextTickTime = TICK_STOP;
+        } else if (this.isFrameTick(timeLeft)) {
+            nextTickTime = TICK_NEXT_FRAME;
+        } else if (this.catchUpPolicy == CATCH_UP_DELAY) {
+            nextTickTime = now + tickInterval;
+        } else {
+            reportedTimeLeft = Math.max(0L, timeLeft + tickOffset);
+            if (reportedTimeLeft == 0) {
+                nextTickTime = deadline;
+            } else {
+                // the next unit boundary, missed units are skipped, never after the deadline
+                final long unitsLeft = (reportedTimeLeft + tickInterval - 1) / tickInterval;
+                nextTickTime = Math.min(deadline,
+                    deadline + tickOffset - (unitsLeft - 1) * tickInterval);
+            }
+        }
+        if (untilDeadline && nextTickTime != TICK_STOP) nextTickTime = deadline;
+
+        long jitter = -1L;
+        long missedTicks = 0L;
+        final long scheduledTickTime = this.scheduledTickTime;
+        if (scheduledTickTime > 0) {
+            jitter = Math.max(0L, now - scheduledTickTime);
+            missedTicks = jitter / tickInterval;
+        }
+        this.scheduledTickTime = nextTickTime > 0 ? nextTickTime : 0L;
+
+        this.metrics.recordTick(jitter < 0 ? -1L : jitter * 1000, missedTicks);
+        final Callback callback = this.callback;
+        if (callback != null) {
+            callback.onTick(this, reportedTimeLeft);
+            if (nextTickTime == TICK_STOP) callback.onCompleted(this);
+        }
+        return nextTickTime;
+    }
+
+}
@@ -0,0 +1,381 @@
+/*
+ * Copyright (C) 2016 CaMnter yuanyu.camnter@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.camnter.easycountdowntextureview;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import java.util.ArrayList;
+
+/**
+ * Description：EasyCountDownGroup
+ * Created by：CaMnter
+ *
+ * Count downs that flip together. The group is registered on the
+ * {@link EasyTicker} once and drives its running members from its own
+ * {@link EasyTickQueue}; the ticks of every member are moved onto one phase,
+ * so all of them are due in the same pass, one wakeup per second for the group.
+ * The deadlines stay where they are.
+ *
+ * {@link #start()}, {@link #pause()}, {@link #resume()} and {@link #stop()}
+ * change every member as one batch: no group tick runs in between, and the
+ * members that run afterwards are aligned to one phase and queued at once.
+ * Members are ticked and listeners are called without the group lock.
+ */
+public final class EasyCountDownGroup implements EasyTickable, EasyTickRegistry {
+
+    private static final int BATCH_START = 0;
+    private static final int BATCH_PAUSE = 1;
+    private static final int BATCH_RESUME = 2;
+    private static final int BATCH_STOP = 3;
+
+    private final Object lock = new Object();
+    // held by a group tick and by a whole batch, before any lock of a member
+    private final Object dispatchLock = new Object();
+
+    private final EasyTickQueue tickQueue = new EasyTickQueue();
+
+    /***********
+     * Members *
+     ***********/
+    // a view, or the engine itself for a count down without a view
+    private final ArrayList<EasyTickable> tickables = new ArrayList<>();
+    private final ArrayList<EasyCountDownEngine> engines = new ArrayList<>();
+    // the controller of a view, null for an engine
+    private final ArrayList<EasyCountDownController> controllers = new ArrayList<>();
+
+    // tick phase of every running member, -1 while none runs
+    private long phase = -1L;
+
+    // members registered during a batch, queued when it ends, guarded by lock
+    private boolean inBatch = false;
+    private final ArrayList<EasyTickable> batchTickables = new ArrayList<>();
+
+    // null for EasyTicker.getDefault()
+    private EasyTicker ticker;
+    // while any member runs
+    private EasyTicker registeredTicker;
+
+
+    /**
+     * Tick and draw every member on the thread of ticker instead of the default one
+     *
+     * @param ticker ticker, null for {@link EasyTicker#getDefault()}
+     */
+    public void setTicker(@Nullable final EasyTicker ticker) {
+        synchronized (this.lock) {
+            this.ticker = ticker;
+            if (this.registeredTicker == null) return;
+            this.registeredTicker.unregister(this);
+            this.registerOnTicker();
+        }
+    }
+
+
+    private void registerOnTicker() {
+        final EasyTicker ticker = this.ticker != null ? this.ticker : EasyTicker.getDefault();
+        if (this.registeredTicker != null && this.registeredTicker != ticker) {
+            this.registeredTicker.unregister(this);
+        }
+        this.registeredTicker = ticker;
+        ticker.register(this);
+    }
+
+
+    public void add(@NonNull final EasyCountDownTextureView view) {
+        this.addController(view.getController());
+    }
+
+
+    public void add(@NonNull final EasyCountDownView view) {
+        this.addController(view.getController());
+    }
+
+
+    private void addController(@NonNull final EasyCountDownController controller) {
+        synchronized (this.lock) {
+            final EasyTickable tickable = controller.getTickable();
+            if (this.tickables.contains(tickable)) return;
+            this.tickables.add(tickable);
+            this.engines.add(controller.getEngine());
+            this.controllers.add(controller);
+        }
+        controller.setGroup(this);
+    }
+
+
+    /**
+     * A count down without a view, its {@link EasyCountDownEngine.Callback} gets the ticks
+     *
+     * @param engine engine
+     */
+    public void add(@NonNull final EasyCountDownEngine engine) {
+        synchronized (this.lock) {
+            if (this.tickables.contains(engine)) return;
+            this.tickables.add(engine);
+            this.engines.add(engine);
+            this.controllers.add(null);
+            if (engine.isRunning()) this.register(engine);
+        }
+    }
+
+
+    public void remove(@NonNull final EasyCountDownTextureView view) {
+        if (!this.removeMember(view)) return;
+        view.getController().setGroup(null);
+    }
+
+
+    public void remove(@NonNull final EasyCountDownView view) {
+        if (!this.removeMember(view)) return;
+        view.getController().setGroup(null);
+    }
+
+
+    public void remove(@NonNull final EasyCountDownEngine engine) {
+        this.removeMember(engine);
+    }
+
+
+    private boolean removeMember(@NonNull final EasyTickable tickable) {
+        synchronized (this.lock) {
+            final int index = this.tickables.indexOf(tickable);
+            if (index < 0) return false;
+            this.tickables.remove(index);
+            this.engines.remove(index);
+            this.controllers.remove(index);
+            this.unregister(tickable);
+            return true;
+        }
+    }
+
+
+    public int size() {
+        synchronized (this.lock) {
+            return this.tickables.size();
+        }
+    }
+
+
+    /**
+     * Start every member from its time left, all on the same phase
+     */
+    public void start() {
+        this.batch(BATCH_START);
+    }
+
+
+    /**
+     * Freeze every running member, they keep their time left
+     */
+    public void pause() {
+        this.batch(BATCH_PAUSE);
+    }
+
+
+    /**
+     * Run every paused member again, all on the same phase
+     */
+    public void resume() {
+        this.batch(BATCH_RESUME);
+    }
+
+
+    /**
+     * Stop every member, they keep their time left
+     */
+    public void stop() {
+        this.batch(BATCH_STOP);
+    }
+
+
+    /**
+     * Change every member while no group tick runs, then queue the running ones at once
+     *
+     * @param action {@link #BATCH_START}, {@link #BATCH_PAUSE}, {@link #BATCH_RESUME}
+     * or {@link #BATCH_STOP}
+     */
+    private void batch(final int action) {
+        synchronized (this.dispatchLock) {
+            final EasyCountDownController[] controllers = this.getControllers();
+            final EasyCountDownEngine[] engines = this.getEngines();
+            synchronized (this.lock) {
+                this.inBatch = true;
+            }
+            try {
+                for (int i = 0; i < controllers.length; i++) {
+                    this.batchMember(action, controllers[i], engines[i]);
+                }
+            } finally {
+                this.endBatch();
+            }
+        }
+    }
+
+
+    private void batchMember(final int action,
+                             @Nullable final EasyCountDownController controller,
+                             @NonNull final EasyCountDownEngine engine) {
+        switch (action) {
+            case BATCH_START:
+                if (controller != null) {
+                    controller.start();
+                } else if (engine.start()) {
+                    this.register(engine);
+                }
+                break;
+            case BATCH_PAUSE:
+                if (controller != null) {
+                    controller.pause();
+                } else if (engine.pause()) {
+                    this.unregister(engine);
+                }
+                break;
+            case BATCH_RESUME:
+                if (controller != null) {
+                    controller.resume();
+                } else if (engine.resume()) {
+                    this.register(engine);
+                }
+                break;
+            case BATCH_STOP:
+                if (controller != null) {
+                    controller.stop();
+                } else if (engine.stop()) {
+                    this.unregister(engine);
+                }
+                break;
+        }
+    }
+
+
+    /**
+     * Align the members registered during the batch to one phase, due right away
+     */
+    private void endBatch() {
+        synchronized (this.lock) {
+            this.inBatch = false;
+            for (EasyTickable tickable : this.batchTickables) {
+                final int index = this.tickables.indexOf(tickable);
+                if (index < 0) continue;
+                final EasyCountDownEngine engine = this.engines.get(index);
+                // paused by a racing call, which unregistered it from the batch
+                if (!engine.isRunning()) continue;
+                if (this.phase < 0) {
+                    this.phase = engine.getTickPhase();
+                } else {
+                    engine.alignTickPhase(this.phase);
+                }
+                this.tickQueue.add(tickable, 0L);
+            }
+            this.batchTickables.clear();
+            if (this.tickQueue.size() > 0) this.registerOnTicker();
+        }
+    }
+
+
+    @NonNull
+    private EasyCountDownController[] getControllers() {
+        synchronized (this.lock) {
+            return this.controllers.toArray(new EasyCountDownController[this.controllers.size()]);
+        }
+    }
+
+
+    @NonNull
+    private EasyCountDownEngine[] getEngines() {
+        synchronized (this.lock) {
+            return this.engines.toArray(new EasyCountDownEngine[this.engines.size()]);
+        }
+    }
+
+
+    /**
+     * Called by members instead of {@link EasyTicker#register(EasyTickable)}
+     *
+     * @param tickable a member
+     */
+    @Override
+    public void register(@NonNull final EasyTickable tickable) {
+        synchronized (this.lock) {
+            final int index = this.tickables.indexOf(tickable);
+            if (index < 0) return;
+            if (this.inBatch) {
+                if (!this.batchTickables.contains(tickable)) this.batchTickables.add(tickable);
+                return;
+            }
+            final EasyCountDownEngine engine = this.engines.get(index);
+            if (this.phase < 0) {
+                this.phase = engine.getTickPhase();
+            } else {
+                engine.alignTickPhase(this.phase);
+            }
+            // due right away
+            this.tickQueue.add(tickable, 0L);
+            this.registerOnTicker();
+        }
+    }
+
+
+    /**
+     * Called by members instead of {@link EasyTicker#unregister(EasyTickable)}
+     *
+     * @param tickable a member
+     */
+    @Override
+    public void unregister(@NonNull final EasyTickable tickable) {
+        synchronized (this.lock) {
+            this.batchTickables.remove(tickable);
+            // the last running member
+            if (this.tickQueue.remove(tickable)) {
+                this.phase = -1L;
+                if (this.registeredTicker == null) return;
+                this.registeredTicker.unregister(this);
+                this.registeredTicker = null;
+            }
+        }
+    }
+
+
+    /**
+     * Called on the {@link EasyTicker} thread, runs every due member in one pass
+     *
+     * @param now elapsed realtime
+     * @return the earliest next tick of the members
+     */
+    @Override
+    public long onTick(final long now) {
+        // never in the middle of a batch
+        synchronized (this.dispatchLock) {
+            // the queue ticks a snapshot of its members, they may register or unregister meanwhile
+            final int modCount = this.tickQueue.getModCount();
+            long earliestTickTime = this.tickQueue.dispatch(now);
+            synchronized (this.lock) {
+                if (this.tickQueue.size() == 0) {
+                    this.phase = -1L;
+                    this.registeredTicker = null;
+                    return TICK_STOP;
+                }
+                if (this.tickQueue.getModCount() != modCount) {
+                    earliestTickTime = this.tickQueue.getEarliestTickTime();
+                }
+                if (this.tickQueue.isFrameRequested()) return TICK_NEXT_FRAME;
+                return earliestTickTime;
+            }
+        }
+    }
+
+}
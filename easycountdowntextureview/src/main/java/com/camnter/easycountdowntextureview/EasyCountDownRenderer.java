@@ -0,0 +1,687 @@
+/*
+ * Copyright (C) 2016 CaMnter yuanyu.camnter@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.camnter.easycountdowntextureview;
+
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.DisplayMetrics;
+import android.util.TypedValue;
+import android.view.View;
+import java.util.Locale;
+
+/**
+ * Description：EasyCountDownRenderer
+ * Created by：CaMnter
+ *
+ * The boxes of a count down: attributes, layout and drawing on any Canvas,
+ * shared by every count down view. Not thread safe, the owner changes and
+ * draws it under one lock.
+ */
+final class EasyCountDownRenderer {
+
+    private static final String DEFAULT_SEPARATOR = ":";
+    private static final String DEFAULT_FRACTION_SEPARATOR = ".";
+
+    private static final int DEFAULT_COLOR_BACKGROUND = Color.BLACK;
+    private static final int DEFAULT_COLOR_COLON = Color.BLACK;
+    private static final int DEFAULT_COLOR_TIME = Color.WHITE;
+    private static final int DEFAULT_COLOR_RECT_BORDER = Color.BLACK;
+
+    /**
+     * Sub-second precision, in units per second
+     */
+    static final int SUB_SECOND_NONE = 1;
+    static final int SUB_SECOND_TENTHS = 10;
+    static final int SUB_SECOND_HUNDREDTHS = 100;
+    static final int SUB_SECOND_MILLIS = 1000;
+
+    /**
+     * Transition of a changed segment
+     */
+    static final int TRANSITION_NONE = 0;
+    static final int TRANSITION_SLIDE = 1;
+    static final int TRANSITION_FLIP = 2;
+
+    private static final long DEFAULT_TRANSITION_DURATION = 250L;
+
+    /**************
+     * Default dp *
+     **************/
+    private static final float DEFAULT_BACKGROUND_PAINT_WIDTH = 0.01f;
+    private static final float DEFAULT_COLON_PAINT_STROKE = 0.66f;
+    private static final float DEFAULT_TIME_PAINT_STROKE = 0.77f;
+    private static final float DEFAULT_ROUND_RECT_RADIUS = 2.66f;
+    private static final float DEFAULT_RECT_WIDTH = 18.0f;
+    private static final float DEFAULT_RECT_HEIGHT = 17.0f;
+    private static final float DEFAULT_RECT_SPACING = 6.0f;
+    private static final float DEFAULT_TIME_TEXT_SIZE = 13.0f;
+    private static final float DEFAULT_COLON_TEXT_SIZE = 13.0f;
+
+    private final DisplayMetrics metrics;
+
+    /**************
+     * Default px *
+     **************/
+    private float rectWidth;
+    private float rectHeight;
+    private float rectSpacing;
+    private float rectRadius;
+    private boolean drawRectBorder = false;
+
+    private float paddingLeft;
+    private float paddingTop;
+
+    private final Locale locale = Locale.getDefault();
+    private final EasyDigitCache digitCache = EasyDigitCache.obtain(this.locale);
+    // for more than two digits, only touched while drawing
+    private final char[] digitBuffer = new char[EasyDigitCache.MAX_DIGITS];
+
+    private Paint colonPaint;
+    private Paint rectBorderPaint;
+
+    private Paint timePaint;
+
+    private Paint backgroundPaint;
+    // only touched while drawing
+    private final RectF segmentRect = new RectF();
+
+    /************
+     * Segments *
+     ************/
+    static final int SEGMENT_DAY = 0;
+    static final int SEGMENT_HOUR = 1;
+    static final int SEGMENT_MINUTE = 2;
+    static final int SEGMENT_SECOND = 3;
+    static final int SEGMENT_FRACTION = 4;
+    static final int SEGMENT_COUNT = 5;
+
+    /**
+     * Fields, one flag per segment, the shown segments run from the first to the last flag
+     */
+    static final int FIELD_DAY = 1 << SEGMENT_DAY;
+    static final int FIELD_HOUR = 1 << SEGMENT_HOUR;
+    static final int FIELD_MINUTE = 1 << SEGMENT_MINUTE;
+    static final int FIELD_SECOND = 1 << SEGMENT_SECOND;
+    static final int FIELD_MILLIS = 1 << SEGMENT_FRACTION;
+    private static final int DEFAULT_FIELDS = FIELD_HOUR | FIELD_MINUTE | FIELD_SECOND;
+
+    // the millis each segment counts in
+    private static final long[] SEGMENT_UNITS = {
+        EasyTime.ONE_DAY, EasyTime.ONE_HOUR, EasyTime.ONE_MINUTE, EasyTime.ONE_SECOND, 1L
+    };
+
+    // the first segment takes the larger units, without days hours go beyond 23
+    private int firstSegment = SEGMENT_HOUR;
+    private int lastSegment = SEGMENT_SECOND;
+    private int subSecondPrecision = SUB_SECOND_NONE;
+    // mirrored, the first segment on the right
+    private boolean rtl = false;
+    private String separator = DEFAULT_SEPARATOR;
+    private String fractionSeparator = DEFAULT_FRACTION_SEPARATOR;
+    private int transition = TRANSITION_NONE;
+    private long transitionDuration = DEFAULT_TRANSITION_DURATION;
+
+    /**********
+     * Layout *
+     **********/
+    // in view coordinates, computed by refitLayout() and read by measuring and drawing
+    private final float[] segmentLefts = new float[SEGMENT_COUNT];
+    // center of the separator in front of every segment but the first
+    private final float[] separatorCenters = new float[SEGMENT_COUNT];
+    private final String[] separators = new String[SEGMENT_COUNT];
+    private float segmentTop;
+    private float timeBaseLine;
+    private float separatorBaseLine;
+    // without padding
+    private float contentWidth;
+    private float contentHeight;
+    // border stroke and anti-aliasing go a little beyond the rect
+    private int segmentOutset;
+
+
+    /**
+     * @param metrics metrics of the owner
+     * @param typedArray R.styleable.EasyCountDownTextureView
+     */
+    EasyCountDownRenderer(@NonNull final DisplayMetrics metrics,
+                          @NonNull final TypedArray typedArray) {
+        this.metrics = metrics;
+
+        int fields = DEFAULT_FIELDS;
+        if (typedArray.getBoolean(R.styleable.EasyCountDownTextureView_easyCountShowDays,
+            false)) {
+            fields |= FIELD_DAY;
+        }
+        this.subSecondPrecision = typedArray.getInt(
+            R.styleable.EasyCountDownTextureView_easyCountSubSecond, SUB_SECOND_NONE);
+        if (this.subSecondPrecision > SUB_SECOND_NONE) fields |= FIELD_MILLIS;
+        // easyCountFields wins over easyCountShowDays and easyCountSubSecond
+        fields = typedArray.getInt(R.styleable.EasyCountDownTextureView_easyCountFields, fields);
+        this.applyFields(fields);
+
+        this.initTimePaint(typedArray);
+        this.initColonPaint(typedArray);
+        this.initRectBorderPaint(typedArray);
+        this.initBackgroundPaint(typedArray);
+
+        this.rectWidth = typedArray.getDimension(
+            R.styleable.EasyCountDownTextureView_easyCountRectWidth,
+            this.dp2px(DEFAULT_RECT_WIDTH));
+        this.rectHeight = typedArray.getDimension(
+            R.styleable.EasyCountDownTextureView_easyCountRectHeight,
+            this.dp2px(DEFAULT_RECT_HEIGHT));
+        this.rectSpacing = typedArray.getDimension(
+            R.styleable.EasyCountDownTextureView_easyCountRectSpacing,
+            this.dp2px(DEFAULT_RECT_SPACING));
+        this.rectRadius = typedArray.getDimension(
+            R.styleable.EasyCountDownTextureView_easyCountRectRadius,
+            this.dp2px(DEFAULT_ROUND_RECT_RADIUS));
+        final String separator = typedArray.getString(
+            R.styleable.EasyCountDownTextureView_easyCountSeparator);
+        if (separator != null) this.separator = separator;
+        final String fractionSeparator = typedArray.getString(
+            R.styleable.EasyCountDownTextureView_easyCountFractionSeparator);
+        if (fractionSeparator != null) this.fractionSeparator = fractionSeparator;
+        this.transition = typedArray.getInt(
+            R.styleable.EasyCountDownTextureView_easyCountTransition, TRANSITION_NONE);
+        this.transitionDuration = typedArray.getInteger(
+            R.styleable.EasyCountDownTextureView_easyCountTransitionDuration,
+            (int) DEFAULT_TRANSITION_DURATION);
+        this.refitLayout();
+    }
+
+
+    private void initColonPaint(@NonNull final TypedArray typedArray) {
+        this.colonPaint = new Paint();
+        this.colonPaint.setAntiAlias(true);
+        this.colonPaint.setColor(
+            typedArray.getColor(R.styleable.EasyCountDownTextureView_easyCountColonColor,
+                DEFAULT_COLOR_COLON));
+        this.colonPaint.setTextSize(
+            typedArray.getDimension(R.styleable.EasyCountDownTextureView_easyCountColonSize,
+                this.dp2px(DEFAULT_TIME_TEXT_SIZE)));
+        this.colonPaint.setStrokeWidth(
+            typedArray.getDimension(R.styleable.EasyCountDownTextureView_easyCountColonStroke,
+                this.dp2px(DEFAULT_COLON_PAINT_STROKE)));
+        this.colonPaint.setStyle(Paint.Style.FILL_AND_STROKE);
+        this.colonPaint.setTextAlign(Paint.Align.CENTER);
+        this.colonPaint.setStrokeCap(Paint.Cap.ROUND);
+    }
+
+
+    private void initTimePaint(@NonNull final TypedArray typedArray) {
+        this.timePaint = new Paint();
+        this.timePaint.setAntiAlias(true);
+        this.timePaint.setColor(
+            typedArray.getColor(R.styleable.EasyCountDownTextureView_easyCountTimeColor,
+                DEFAULT_COLOR_TIME));
+        this.timePaint.setTextSize(
+            typedArray.getDimension(R.styleable.EasyCountDownTextureView_easyCountTimeSize,
+                this.dp2px(DEFAULT_COLON_TEXT_SIZE)));
+        this.timePaint.setStrokeWidth(
+            typedArray.getDimension(R.styleable.EasyCountDownTextureView_easyCountTimeStroke,
+                this.dp2px(DEFAULT_TIME_PAINT_STROKE)));
+        this.timePaint.setStyle(Paint.Style.FILL_AND_STROKE);
+        this.timePaint.setTextAlign(Paint.Align.CENTER);
+        this.timePaint.setStrokeCap(Paint.Cap.ROUND);
+    }
+
+
+    private void initRectBorderPaint(@NonNull final TypedArray typedArray) {
+        final float rectBorderStroke = typedArray.getDimension(
+            R.styleable.EasyCountDownTextureView_easyCountRectBorderStroke, Float.MIN_VALUE);
+        this.checkRectBorder(rectBorderStroke);
+        if (!this.drawRectBorder) return;
+        this.rectBorderPaint = new Paint();
+        this.rectBorderPaint.setAntiAlias(true);
+        this.rectBorderPaint.setColor(
+            typedArray.getColor(R.styleable.EasyCountDownTextureView_easyCountRectBorderColor,
+                DEFAULT_COLOR_RECT_BORDER));
+        this.rectBorderPaint.setStrokeWidth(rectBorderStroke);
+        this.rectBorderPaint.setStyle(Paint.Style.STROKE);
+        this.rectBorderPaint.setTextAlign(Paint.Align.CENTER);
+        this.rectBorderPaint.setStrokeCap(Paint.Cap.SQUARE);
+    }
+
+
+    private void initBackgroundPaint(@NonNull final TypedArray typedArray) {
+        this.backgroundPaint = new Paint();
+        this.backgroundPaint.setAntiAlias(true);
+        this.backgroundPaint.setColor(
+            typedArray.getColor(R.styleable.EasyCountDownTextureView_easyCountBackgroundColor,
+                DEFAULT_COLOR_BACKGROUND));
+        this.backgroundPaint.setStyle(Paint.Style.FILL_AND_STROKE);
+        this.backgroundPaint.setStrokeWidth(this.dp2px(DEFAULT_BACKGROUND_PAINT_WIDTH));
+        this.backgroundPaint.setTextAlign(Paint.Align.CENTER);
+        this.backgroundPaint.setStrokeCap(Paint.Cap.ROUND);
+    }
+
+
+    private void checkRectBorder(final float rectBorder) {
+        this.drawRectBorder = rectBorder != Float.MIN_VALUE;
+    }
+
+
+    /**
+     * Place every segment and separator once per size or config change, measuring
+     * and drawing only read the result
+     */
+    private void refitLayout() {
+        final int boxes = this.lastSegment - this.firstSegment + 1;
+        final float step = this.rectWidth + this.rectSpacing;
+        this.contentWidth = this.rectWidth * boxes + this.rectSpacing * (boxes - 1);
+        this.contentHeight = this.rectHeight;
+        for (int i = this.firstSegment; i <= this.lastSegment; i++) {
+            final int position = this.rtl ? this.lastSegment - i : i - this.firstSegment;
+            this.segmentLefts[i] = this.paddingLeft + step * position;
+            // in the spacing on the side of the previous segment
+            if (this.rtl) {
+                this.separatorCenters[i] = this.segmentLefts[i] + this.rectWidth +
+                    this.rectSpacing / 2;
+            } else {
+                this.separatorCenters[i] = this.segmentLefts[i] - this.rectSpacing / 2;
+            }
+            this.separators[i] = i == SEGMENT_FRACTION ? this.fractionSeparator : this.separator;
+        }
+        final float borderStroke = this.rectBorderPaint == null
+                                   ? 0
+                                   : this.rectBorderPaint.getStrokeWidth();
+        this.segmentOutset = (int) Math.ceil(borderStroke / 2) + 1;
+
+        this.segmentTop = this.paddingTop;
+        final Paint.FontMetricsInt timePaintFontMetrics = this.timePaint.getFontMetricsInt();
+        final float timePaintBaseLine = (this.rectHeight - timePaintFontMetrics.bottom -
+            timePaintFontMetrics.top) / 2;
+        this.timeBaseLine = this.segmentTop + timePaintBaseLine;
+        // a little higher for the colon
+        this.separatorBaseLine = this.segmentTop + timePaintBaseLine / 40 * 37;
+    }
+
+
+    void setPadding(final float paddingLeft, final float paddingTop) {
+        this.paddingLeft = paddingLeft;
+        this.paddingTop = paddingTop;
+        this.refitLayout();
+    }
+
+
+    void setRectWidth(final float rectWidth) {
+        this.rectWidth = rectWidth;
+        this.refitLayout();
+    }
+
+
+    void setRectHeight(final float rectHeight) {
+        this.rectHeight = rectHeight;
+        this.refitLayout();
+    }
+
+
+    void setRectSpacing(final float rectSpacing) {
+        this.rectSpacing = rectSpacing;
+        this.refitLayout();
+    }
+
+
+    float getRectWidth() {
+        return this.rectWidth;
+    }
+
+
+    float getRectHeight() {
+        return this.rectHeight;
+    }
+
+
+    float getRectSpacing() {
+        return this.rectSpacing;
+    }
+
+
+    /**
+     * @param fields FIELD_* flags, the gaps between them are shown too
+     */
+    void setFields(final int fields) {
+        this.applyFields(fields);
+        this.refitLayout();
+    }
+
+
+    int getFields() {
+        int fields = 0;
+        for (int i = this.firstSegment; i <= this.lastSegment; i++) {
+            fields |= 1 << i;
+        }
+        return fields;
+    }
+
+
+    private void applyFields(int fields) {
+        // the fraction is shown after the seconds
+        if ((fields & ~FIELD_MILLIS) == 0) fields |= FIELD_SECOND;
+        if ((fields & FIELD_MILLIS) != 0) fields |= FIELD_SECOND;
+        this.firstSegment = Integer.numberOfTrailingZeros(fields);
+        this.lastSegment = Math.min(SEGMENT_FRACTION, 31 - Integer.numberOfLeadingZeros(fields));
+        if (this.lastSegment != SEGMENT_FRACTION) {
+            this.subSecondPrecision = SUB_SECOND_NONE;
+        } else if (this.subSecondPrecision == SUB_SECOND_NONE) {
+            this.subSecondPrecision = SUB_SECOND_MILLIS;
+        }
+    }
+
+
+    void setShowDays(final boolean showDays) {
+        final int fields = this.getFields();
+        this.setFields(showDays ? fields | FIELD_DAY : (fields & ~FIELD_DAY) | FIELD_HOUR);
+    }
+
+
+    void setSubSecondPrecision(final int precision) {
+        this.subSecondPrecision = precision;
+        final int fields = this.getFields();
+        this.setFields(precision > SUB_SECOND_NONE
+                       ? fields | FIELD_MILLIS
+                       : fields & ~FIELD_MILLIS);
+    }
+
+
+    /**
+     * The shown value changes once per unit, per frame with the fraction
+     *
+     * @return the unit of the last whole segment
+     */
+    long getTickUnit() {
+        return SEGMENT_UNITS[Math.min(this.lastSegment, SEGMENT_SECOND)];
+    }
+
+
+    boolean hasSubSecond() {
+        return this.subSecondPrecision > SUB_SECOND_NONE;
+    }
+
+
+    int getFirstSegment() {
+        return this.firstSegment;
+    }
+
+
+    int getLastSegment() {
+        return this.lastSegment;
+    }
+
+
+    /**
+     * Mirror the segments, days on the right
+     *
+     * @param rtl rtl
+     */
+    void setRtl(final boolean rtl) {
+        this.rtl = rtl;
+        this.refitLayout();
+    }
+
+
+    /**
+     * @param separator between whole units, ":" by default
+     * @param fractionSeparator in front of the fraction, "." by default
+     */
+    void setSeparators(@NonNull final String separator, @NonNull final String fractionSeparator) {
+        this.separator = separator;
+        this.fractionSeparator = fractionSeparator;
+        this.refitLayout();
+    }
+
+
+    /**
+     * @param transition TRANSITION_*
+     * @param transitionDuration millis
+     */
+    void setTransition(final int transition, final long transitionDuration) {
+        this.transition = transition;
+        this.transitionDuration = transitionDuration;
+    }
+
+
+    /**
+     * How long a changed segment animates, at most half a tick so transitions
+     * never overlap
+     *
+     * @param tickInterval tickInterval
+     * @return millis, 0 without transition
+     */
+    long getTransitionDuration(final long tickInterval) {
+        if (this.transition == TRANSITION_NONE) return 0L;
+        return Math.min(this.transitionDuration, tickInterval / 2);
+    }
+
+
+    /**
+     * Without padding
+     */
+    float getDefaultWrapContentWidth() {
+        return this.contentWidth;
+    }
+
+
+    /**
+     * Without padding
+     */
+    float getDefaultWrapContentHeight() {
+        return this.contentHeight;
+    }
+
+
+    /**
+     * wrap_content gets the default size, match_parent at least the default size
+     *
+     * @param measureSpec measureSpec
+     * @param defaultSize default size without padding
+     * @param padding padding of both sides
+     * @return measured size
+     */
+    static int measureSize(final int measureSpec, final float defaultSize, final float padding) {
+        float result;
+        switch (View.MeasureSpec.getMode(measureSpec)) {
+            // wrap_content
+            case View.MeasureSpec.AT_MOST:
+            case View.MeasureSpec.UNSPECIFIED:
+                result = defaultSize;
+                break;
+            // match_parent
+            case View.MeasureSpec.EXACTLY:
+            default:
+                result = Math.max(View.MeasureSpec.getSize(measureSpec), defaultSize);
+                break;
+        }
+        return (int) (result + padding);
+    }
+
+
+    /**
+     * Bounds of the segments from fromSegment to the last one, with the separator in front
+     *
+     * @param fromSegment fromSegment
+     * @param bounds out
+     */
+    void getSegmentBounds(final int fromSegment, @NonNull final Rect bounds) {
+        // the segments after fromSegment lie on one side of it
+        final float fromLeft = this.segmentLefts[fromSegment];
+        final float toLeft = this.segmentLefts[this.lastSegment];
+        float left = Math.min(fromLeft, toLeft);
+        float right = Math.max(fromLeft, toLeft) + this.rectWidth;
+        if (fromSegment > this.firstSegment) {
+            final float separatorCenter = this.separatorCenters[fromSegment];
+            left = Math.min(left, separatorCenter - this.rectSpacing / 2);
+            right = Math.max(right, separatorCenter + this.rectSpacing / 2);
+        }
+        bounds.set(
+            (int) left - this.segmentOutset,
+            (int) this.segmentTop - this.segmentOutset,
+            (int) Math.ceil(right) + this.segmentOutset,
+            (int) Math.ceil(this.segmentTop + this.rectHeight) + this.segmentOutset);
+    }
+
+
+    void splitTime(final long millis, @NonNull final int[] values) {
+        values[SEGMENT_DAY] = (int) EasyTime.days(millis);
+        values[SEGMENT_HOUR] = EasyTime.hoursOfDay(millis);
+        values[SEGMENT_MINUTE] = EasyTime.minutesOfHour(millis);
+        values[SEGMENT_SECOND] = EasyTime.secondsOfMinute(millis);
+        values[SEGMENT_FRACTION] = EasyTime.millisOfSecond(millis) /
+            (SUB_SECOND_MILLIS / this.subSecondPrecision);
+        // the first segment takes the larger units, 49 hours stay 49
+        if (this.firstSegment > SEGMENT_DAY) {
+            values[this.firstSegment] = (int) Math.min(Integer.MAX_VALUE,
+                Math.max(0L, millis) / SEGMENT_UNITS[this.firstSegment]);
+        }
+    }
+
+
+    private int getSegmentDigits(final int segment) {
+        if (segment != SEGMENT_FRACTION) return 2;
+        switch (this.subSecondPrecision) {
+            case SUB_SECOND_TENTHS:
+                return 1;
+            case SUB_SECOND_HUNDREDTHS:
+                return 2;
+            default:
+                return 3;
+        }
+    }
+
+
+    void drawTimeAndBackground(@NonNull final Canvas canvas,
+                               @NonNull final int[] values,
+                               final int fromSegment) {
+        this.drawTimeAndBackground(canvas, values, fromSegment, null, 1f);
+    }
+
+
+    /**
+     * Draw from the precomputed layout, absolute coordinates without save and restore.
+     * Only segments in transition save and clip the canvas
+     *
+     * @param previousValues the values before the transition, null for none
+     * @param progress 0..1 of the transition
+     */
+    void drawTimeAndBackground(@NonNull final Canvas canvas,
+                               @NonNull final int[] values,
+                               final int fromSegment,
+                               @Nullable final int[] previousValues,
+                               final float progress) {
+        final RectF rect = this.segmentRect;
+        for (int i = fromSegment; i <= this.lastSegment; i++) {
+            if (i > this.firstSegment) {
+                canvas.drawText(this.separators[i], this.separatorCenters[i],
+                    this.separatorBaseLine, this.colonPaint);
+            }
+            final float left = this.segmentLefts[i];
+            rect.set(left, this.segmentTop, left + this.rectWidth,
+                this.segmentTop + this.rectHeight);
+            // background
+            canvas.drawRoundRect(rect, this.rectRadius, this.rectRadius, this.backgroundPaint);
+            // border
+            this.drawRectBorder(canvas, rect, this.rectRadius, this.rectBorderPaint);
+            if (previousValues == null || previousValues[i] == values[i] || progress >= 1f) {
+                this.drawDigits(canvas, values[i], this.getSegmentDigits(i), rect.centerX(),
+                    this.timeBaseLine);
+            } else {
+                this.drawTransition(canvas, rect, i, previousValues[i], values[i], progress);
+            }
+        }
+    }
+
+
+    /**
+     * Slide: the previous value moves up and out, the value moves in from below.
+     * Flip: the previous value folds to a line, the value unfolds from it
+     */
+    private void drawTransition(@NonNull final Canvas canvas,
+                                @NonNull final RectF rect,
+                                final int segment,
+                                final int previousValue,
+                                final int value,
+                                final float progress) {
+        final int digits = this.getSegmentDigits(segment);
+        final float centerX = rect.centerX();
+        canvas.save();
+        canvas.clipRect(rect);
+        if (this.transition == TRANSITION_FLIP) {
+            canvas.scale(1f, Math.abs(1f - 2 * progress), centerX, rect.centerY());
+            this.drawDigits(canvas, progress < 0.5f ? previousValue : value, digits, centerX,
+                this.timeBaseLine);
+        } else {
+            final float offset = this.rectHeight * progress;
+            this.drawDigits(canvas, previousValue, digits, centerX, this.timeBaseLine - offset);
+            this.drawDigits(canvas, value, digits, centerX,
+                this.timeBaseLine - offset + this.rectHeight);
+        }
+        canvas.restore();
+    }
+
+
+    /**
+     * Draw value with at least minDigits digits, without allocation
+     */
+    private void drawDigits(@NonNull final Canvas canvas,
+                            final int value,
+                            final int minDigits,
+                            final float x,
+                            final float y) {
+        if (minDigits == 2 && value < EasyDigitCache.TWO_DIGITS_LIMIT) {
+            canvas.drawText(this.digitCache.getTwoDigits(), this.digitCache.indexOf(value), 2,
+                x, y, this.timePaint);
+        } else {
+            final int index = this.digitCache.fill(value, minDigits, this.digitBuffer);
+            canvas.drawText(this.digitBuffer, index, this.digitBuffer.length - index, x, y,
+                this.timePaint);
+        }
+    }
+
+
+    private void drawRectBorder(@NonNull final Canvas canvas,
+                                @NonNull final RectF rect,
+                                final float rectRadius,
+                                @Nullable Paint paint) {
+        if (paint == null) return;
+        if (rectRadius > 0) {
+            paint.setStrokeCap(Paint.Cap.ROUND);
+            canvas.drawRoundRect(rect, rectRadius, rectRadius, paint);
+        } else {
+            paint.setStrokeCap(Paint.Cap.SQUARE);
+            canvas.drawRect(rect, paint);
+        }
+    }
+
+
+    /**
+     * Dp to px
+     *
+     * @param dp dp
+     * @return px
+     */
+    private float dp2px(final float dp) {
+        return TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, dp, this.metrics);
+    }
+
+}
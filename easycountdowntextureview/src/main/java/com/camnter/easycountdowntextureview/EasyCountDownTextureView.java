@@ -21,14 +21,16 @@ import android.content.Context;
 import android.content.res.TypedArray;
 import android.graphics.Canvas;
 import android.graphics.Color;
-import android.graphics.Paint;
-import android.graphics.RectF;
+import android.graphics.Matrix;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
 import android.graphics.SurfaceTexture;
 import android.os.Build;
+import android.os.Parcelable;
 import android.os.Handler;
 import android.os.Looper;
 import android.os.Message;
-import android.os.SystemClock;
+import android.os.Parcel;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.util.AttributeSet;
@@ -36,11 +38,10 @@ import android.util.DisplayMetrics;
 import android.util.Log;
 import android.util.TypedValue;
 import android.view.TextureView;
+import android.view.View;
 import java.lang.ref.WeakReference;
-import java.util.Calendar;
 import java.util.Date;
-import java.util.Locale;
-import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Description：EasyCountDownTextureView
@@ -48,111 +49,215 @@ import java.util.TimeZone;
  * Time：2016-03-16 13:45
  */
 public class EasyCountDownTextureView extends TextureView
-    implements TextureView.SurfaceTextureListener {
+    implements TextureView.SurfaceTextureListener, EasyTickable, EasyCountDownController.Host {
 
     private static final String TAG = EasyCountDownTextureView.class.getSimpleName();
 
-    private static final String LESS_THAN_TEN_FORMAT = "%02d";
-    private static final String COLON = ":";
-
-    private static final int DEFAULT_COLOR_BACKGROUND = Color.BLACK;
-    private static final int DEFAULT_COLOR_COLON = Color.BLACK;
-    private static final int DEFAULT_COLOR_TIME = Color.WHITE;
-    private static final int DEFAULT_COLOR_RECT_BORDER = Color.BLACK;
     private DisplayMetrics metrics;
 
-    private static final int COUNT_DOWN_INTERVAL = 1000;
+    /**
+     * A late tick draws the time left right now, the next tick stays aligned to the deadline
+     */
+    public static final int CATCH_UP_SKIP = EasyCountDownEngine.CATCH_UP_SKIP;
+    /**
+     * A late tick draws the time left right now, the next tick comes one interval later
+     */
+    public static final int CATCH_UP_DELAY = EasyCountDownEngine.CATCH_UP_DELAY;
 
-    private static final long ONE_SECOND = 1000L;
-    private static final long ONE_MINUTE = 60 * ONE_SECOND;
-    private static final long ONE_HOUR = 60 * ONE_MINUTE;
-    private static final long ONE_DAY = 24 * ONE_HOUR;
+    /**
+     * Sub-second precision, in units per second
+     */
+    public static final int SUB_SECOND_NONE = EasyCountDownRenderer.SUB_SECOND_NONE;
+    public static final int SUB_SECOND_TENTHS = EasyCountDownRenderer.SUB_SECOND_TENTHS;
+    public static final int SUB_SECOND_HUNDREDTHS = EasyCountDownRenderer.SUB_SECOND_HUNDREDTHS;
+    public static final int SUB_SECOND_MILLIS = EasyCountDownRenderer.SUB_SECOND_MILLIS;
 
-    private volatile long millisInFuture = 0L;
+    /**
+     * Fields for {@link #setFields(int)}, the gaps between them are shown too
+     */
+    public static final int FIELD_DAY = EasyCountDownRenderer.FIELD_DAY;
+    public static final int FIELD_HOUR = EasyCountDownRenderer.FIELD_HOUR;
+    public static final int FIELD_MINUTE = EasyCountDownRenderer.FIELD_MINUTE;
+    public static final int FIELD_SECOND = EasyCountDownRenderer.FIELD_SECOND;
+    public static final int FIELD_MILLIS = EasyCountDownRenderer.FIELD_MILLIS;
 
-    /**************
-     * Default dp *
-     **************/
-    private static final float DEFAULT_BACKGROUND_PAINT_WIDTH = 0.01f;
-    private static final float DEFAULT_COLON_PAINT_STROKE = 0.66f;
-    private static final float DEFAULT_TIME_PAINT_STROKE = 0.77f;
-    private static final float DEFAULT_ROUND_RECT_RADIUS = 2.66f;
-    private static final float DEFAULT_RECT_WIDTH = 18.0f;
-    private static final float DEFAULT_RECT_HEIGHT = 17.0f;
-    private static final float DEFAULT_RECT_SPACING = 6.0f;
-    private static final float DEFAULT_TIME_TEXT_SIZE = 13.0f;
-    private static final float DEFAULT_COLON_TEXT_SIZE = 13.0f;
-
-    // 66dp
-    private static final float DEFAULT_VIEW_WIDTH = DEFAULT_RECT_WIDTH * 3 +
-        DEFAULT_RECT_SPACING * 2;
-    // 17dp
-    private static final float DEFAULT_VIEW_HEIGHT = DEFAULT_RECT_HEIGHT;
+    /**
+     * Transitions for {@link #setTransition(int, long)}
+     */
+    public static final int TRANSITION_NONE = EasyCountDownRenderer.TRANSITION_NONE;
+    public static final int TRANSITION_SLIDE = EasyCountDownRenderer.TRANSITION_SLIDE;
+    public static final int TRANSITION_FLIP = EasyCountDownRenderer.TRANSITION_FLIP;
 
-    /**************
-     * Default px *
-     **************/
-    private float rectWidth;
-    private float rectHeight;
-    private float rectSpacing;
-    private float rectRadius;
-    private boolean drawRectBorder = false;
-
-    private float paddingLeft;
-    private float paddingTop;
-    private float paddingRight;
-    private float paddingBottom;
-
-    private float firstTranslateX;
-    private float firstTranslateColonX;
-    private float secondTranslateX;
-    private float secondTranslateColonX;
+    private static final int DEFAULT_SUB_SECOND_WITHIN = 60;
 
+    // null for EasyTicker.getDefault()
+    private volatile EasyTicker ticker;
+
+    private int timeDay;
     private int timeHour;
     private int timeMinute;
     private int timeSecond;
 
-    private int viewWidth;
-    private int viewHeight;
-    private float defaultWrapContentWidth;
-    private float defaultWrapContentHeight;
+    private int subSecondWithin = DEFAULT_SUB_SECOND_WITHIN;
 
-    private EasyThread easyThread;
+    private final Object tickLock = new Object();
 
-    private final Locale locale = Locale.getDefault();
-    private final Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("GMT+00:00"));
+    // attributes, layout and drawing, only touched under tickLock
+    private EasyCountDownRenderer renderer;
+    private final int[] segmentValues = new int[EasyCountDownRenderer.SEGMENT_COUNT];
 
-    private Paint colonPaint;
-    private Paint rectBorderPaint;
+    /****************
+     * Dirty region *
+     ****************/
+    private final Rect dirtyRect = new Rect();
+    private final Rect requestedDirtyRect = new Rect();
+    // after surface or size changes
+    private volatile boolean fullRedraw = true;
+    private final int[] lastDrawnValues = new int[EasyCountDownRenderer.SEGMENT_COUNT];
 
-    private Paint timePaint;
-    // for draw time
-    private float timePaintBaseLine;
-    // for draw colon
-    private float timePaintBaseLineFixed;
+    /**************
+     * Transition *
+     **************/
+    private final int[] transitionFromValues = new int[EasyCountDownRenderer.SEGMENT_COUNT];
+    private int transitionFromSegment;
+    // 0 while no transition runs
+    private volatile long transitionStartTime = 0L;
+    private long transitionDuration;
+    // the engine waits for the transition, then ticks at this time
+    private long pendingTickTime;
+
+    /**********
+     * Buffer *
+     **********/
+    // buffer only as large as the boxes and padding
+    private boolean fitBuffer = false;
+    // opaque surface when not transparent
+    private volatile int backdropColor = Color.TRANSPARENT;
+    private final Rect contentBounds = new Rect();
+    private final Matrix bufferTransform = new Matrix();
+    // only a transform of this view is reset, never one of the app
+    private boolean bufferTransformInstalled = false;
+
+    // the main handler holds it weakly only
+    private EasyCountDownListener easyCountDownListener;
 
-    private Paint backgroundPaint;
-    private RectF backgroundRectF;
 
-    private volatile long lastRecordTime = 0L;
-    private volatile boolean runningState = false;
+    static class MainHandler extends Handler implements EasyCountDownController.Listener {
 
-    private boolean autoResume = true;
-    private long pauseTime = 0L;
+        static final int WHAT_COUNT_DOWN_COMPLETED = 0x26;
+        static final int WHAT_COUNT_DOWN_TICK = 0x2B;
 
-    private EasyCountDownListener easyCountDownListener;
+        private volatile WeakReference<EasyCountDownListener> listenerReference;
+        private volatile WeakReference<EasyCountDownTickListener> tickListenerReference;
 
+        private volatile long tickUnit = EasyTime.ONE_SECOND;
+        private volatile long everyTickWithin = 0L;
+        private volatile long lastTickUnitIndex = -1L;
+        // the latest time left, read when the message runs
+        private volatile long pendingTimeLeft;
+        private final AtomicBoolean tickPending = new AtomicBoolean(false);
 
-    private static class MainHandler extends Handler {
 
-        private static final int WHAT_COUNT_DOWN_COMPLETED = 0x26;
+        MainHandler() {
+            super(Looper.getMainLooper());
+        }
 
-        private final WeakReference<EasyCountDownListener> listenerReference;
 
+        void setListener(@Nullable final EasyCountDownListener easyCountDownListener) {
+            this.listenerReference = easyCountDownListener == null
+                                     ? null
+                                     : new WeakReference<>(easyCountDownListener);
+        }
 
-        MainHandler(@NonNull final EasyCountDownListener easyCountDownListener) {
-            super(Looper.getMainLooper());
-            this.listenerReference = new WeakReference<>(easyCountDownListener);
+
+        void setTickListener(@Nullable final EasyCountDownTickListener easyCountDownTickListener,
+                             final long tickUnit,
+                             final long everyTickWithin) {
+            this.tickUnit = Math.max(1L, tickUnit);
+            this.everyTickWithin = everyTickWithin;
+            this.lastTickUnitIndex = -1L;
+            this.tickListenerReference = easyCountDownTickListener == null
+                                         ? null
+                                         : new WeakReference<>(easyCountDownTickListener);
+        }
+
+
+        @Nullable
+        private EasyCountDownListener getListener() {
+            final WeakReference<EasyCountDownListener> listenerReference
+                = this.listenerReference;
+            return listenerReference == null ? null : listenerReference.get();
+        }
+
+
+        @Override
+        public void onCountDownStart() {
+            final EasyCountDownListener easyCountDownListener = this.getListener();
+            if (easyCountDownListener == null) return;
+            easyCountDownListener.onCountDownStart();
+        }
+
+
+        @Override
+        public void onCountDownTimeError() {
+            final EasyCountDownListener easyCountDownListener = this.getListener();
+            if (easyCountDownListener == null) return;
+            easyCountDownListener.onCountDownTimeError();
+        }
+
+
+        @Override
+        public void onCountDownStop(final long millisInFuture) {
+            final EasyCountDownListener easyCountDownListener = this.getListener();
+            if (easyCountDownListener == null) return;
+            easyCountDownListener.onCountDownStop(millisInFuture);
+        }
+
+
+        @Override
+        public void resetTick() {
+            this.lastTickUnitIndex = -1L;
+        }
+
+
+        @Override
+        public boolean hasTickListener() {
+            return this.tickListenerReference != null;
+        }
+
+
+        /**
+         * Drop a pending tick message when the view leaves the window, a pending
+         * completion is still reported
+         */
+        void clear() {
+            this.removeMessages(WHAT_COUNT_DOWN_TICK);
+            this.tickPending.set(false);
+        }
+
+
+        /**
+         * Called on the {@link EasyTicker} thread with every drawn time. One message
+         * at most is pending, a busy main thread only gets the latest time left
+         *
+         * @param timeLeft drawn time left
+         */
+        @Override
+        public void postTick(final long timeLeft) {
+            if (this.tickListenerReference == null) return;
+            final long unitIndex = timeLeft / this.tickUnit;
+            if (unitIndex == this.lastTickUnitIndex && timeLeft >= this.everyTickWithin) return;
+            this.lastTickUnitIndex = unitIndex;
+            this.pendingTimeLeft = timeLeft;
+            if (this.tickPending.compareAndSet(false, true)) {
+                this.sendEmptyMessage(WHAT_COUNT_DOWN_TICK);
+            }
+        }
+
+
+        @Override
+        public void postCompleted() {
+            this.sendEmptyMessage(WHAT_COUNT_DOWN_COMPLETED);
         }
 
 
@@ -163,18 +268,78 @@ public class EasyCountDownTextureView extends TextureView
         public void dispatchMessage(Message msg) {
             switch (msg.what) {
                 case WHAT_COUNT_DOWN_COMPLETED:
-                    final EasyCountDownListener easyCountDownListener
-                        = this.listenerReference.get();
+                    final EasyCountDownListener easyCountDownListener = this.getListener();
                     if (easyCountDownListener == null) return;
                     easyCountDownListener.onCountDownCompleted();
                     break;
+                case WHAT_COUNT_DOWN_TICK:
+                    this.tickPending.set(false);
+                    final WeakReference<EasyCountDownTickListener> tickListenerReference
+                        = this.tickListenerReference;
+                    if (tickListenerReference == null) return;
+                    final EasyCountDownTickListener easyCountDownTickListener
+                        = tickListenerReference.get();
+                    if (easyCountDownTickListener == null) return;
+                    easyCountDownTickListener.onCountDownTick(this.pendingTimeLeft);
+                    break;
             }
         }
 
     }
 
 
-    private MainHandler mainHandler;
+    private final MainHandler mainHandler = new MainHandler();
+    // all timing and registration, this view only renders
+    private final EasyCountDownController controller = new EasyCountDownController(
+        EasyTicker.ELAPSED_REALTIME_CLOCK, this, this, this.mainHandler);
+
+
+    static class SavedState extends BaseSavedState {
+
+        // elapsed realtime, 0 if not running
+        long deadline;
+        long timeLeft;
+        // paused stays paused, no auto start
+        boolean paused;
+
+
+        SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+
+        private SavedState(Parcel in) {
+            super(in);
+            this.deadline = in.readLong();
+            this.timeLeft = in.readLong();
+            this.paused = in.readInt() != 0;
+        }
+
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+            super.writeToParcel(out, flags);
+            out.writeLong(this.deadline);
+            out.writeLong(this.timeLeft);
+            out.writeInt(this.paused ? 1 : 0);
+        }
+
+
+        public static final Parcelable.Creator<SavedState> CREATOR
+            = new Parcelable.Creator<SavedState>() {
+            @Override
+            public SavedState createFromParcel(Parcel in) {
+                return new SavedState(in);
+            }
+
+
+            @Override
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
+            }
+        };
+
+    }
 
 
     public EasyCountDownTextureView(Context context) {
@@ -204,197 +369,121 @@ public class EasyCountDownTextureView extends TextureView
 
     private void init(Context context, AttributeSet attrs) {
         this.metrics = this.getResources().getDisplayMetrics();
-        this.defaultWrapContentWidth = this.dp2px(DEFAULT_VIEW_WIDTH);
-        this.defaultWrapContentHeight = this.dp2px(DEFAULT_VIEW_HEIGHT);
 
         this.setSurfaceTextureListener(this);
-        this.setOpaque(false);
 
         TypedArray typedArray = context.obtainStyledAttributes(attrs,
             R.styleable.EasyCountDownTextureView);
+        this.fitBuffer = typedArray.getBoolean(
+            R.styleable.EasyCountDownTextureView_easyCountFitBuffer, false);
+        this.backdropColor = typedArray.getColor(
+            R.styleable.EasyCountDownTextureView_easyCountBackdropColor, Color.TRANSPARENT);
+        this.setOpaque(Color.alpha(this.backdropColor) == 0xFF);
+        this.renderer = new EasyCountDownRenderer(this.metrics, typedArray);
+        this.renderer.setPadding(this.getPaddingLeft(), this.getPaddingTop());
+        this.subSecondWithin = typedArray.getInteger(
+            R.styleable.EasyCountDownTextureView_easyCountSubSecondWithin,
+            DEFAULT_SUB_SECOND_WITHIN);
+        this.refitTickInterval();
+        this.timeDay = typedArray.getInteger(R.styleable.EasyCountDownTextureView_easyCountDay,
+            0);
         this.timeHour = typedArray.getInteger(R.styleable.EasyCountDownTextureView_easyCountHour,
             0);
         this.timeMinute = typedArray.getInteger(
             R.styleable.EasyCountDownTextureView_easyCountMinute, 0);
         this.timeSecond = typedArray.getInteger(
             R.styleable.EasyCountDownTextureView_easyCountSecond, 0);
-
-        this.initTimePaint(typedArray);
-        this.initColonPaint(typedArray);
-        this.initRectBorderPaint(typedArray);
-        this.initBackgroundPaint(typedArray);
-
-        this.rectWidth = typedArray.getDimension(
-            R.styleable.EasyCountDownTextureView_easyCountRectWidth,
-            this.dp2px(DEFAULT_RECT_WIDTH));
-        this.rectHeight = typedArray.getDimension(
-            R.styleable.EasyCountDownTextureView_easyCountRectHeight,
-            this.dp2px(DEFAULT_RECT_HEIGHT));
-        this.rectSpacing = typedArray.getDimension(
-            R.styleable.EasyCountDownTextureView_easyCountRectSpacing,
-            this.dp2px(DEFAULT_RECT_SPACING));
-        this.refitBackgroundAttribute();
-
-        final Paint.FontMetricsInt timePaintFontMetrics = this.timePaint.getFontMetricsInt();
-        this.timePaintBaseLine = (this.backgroundRectF.bottom + this.backgroundRectF.top -
-            timePaintFontMetrics.bottom - timePaintFontMetrics.top) / 2;
-        // for colon
-        this.timePaintBaseLineFixed = this.timePaintBaseLine / 40 * 37;
-        this.rectRadius = typedArray.getDimension(
-            R.styleable.EasyCountDownTextureView_easyCountRectRadius,
-            this.dp2px(DEFAULT_ROUND_RECT_RADIUS));
         typedArray.recycle();
 
         this.updateTime();
     }
 
 
-    private void initColonPaint(@NonNull final TypedArray typedArray) {
-        this.colonPaint = new Paint();
-        this.colonPaint.setAntiAlias(true);
-        this.colonPaint.setColor(
-            typedArray.getColor(R.styleable.EasyCountDownTextureView_easyCountColonColor,
-                DEFAULT_COLOR_COLON));
-        this.colonPaint.setTextSize(
-            typedArray.getDimension(R.styleable.EasyCountDownTextureView_easyCountColonSize,
-                this.dp2px(DEFAULT_TIME_TEXT_SIZE)));
-        this.colonPaint.setStrokeWidth(
-            typedArray.getDimension(R.styleable.EasyCountDownTextureView_easyCountColonStroke,
-                this.dp2px(DEFAULT_COLON_PAINT_STROKE)));
-        this.colonPaint.setStyle(Paint.Style.FILL_AND_STROKE);
-        this.colonPaint.setTextAlign(Paint.Align.CENTER);
-        this.colonPaint.setStrokeCap(Paint.Cap.ROUND);
-    }
-
-
-    private void initTimePaint(@NonNull final TypedArray typedArray) {
-        this.timePaint = new Paint();
-        this.timePaint.setAntiAlias(true);
-        this.timePaint.setColor(
-            typedArray.getColor(R.styleable.EasyCountDownTextureView_easyCountTimeColor,
-                DEFAULT_COLOR_TIME));
-        this.timePaint.setTextSize(
-            typedArray.getDimension(R.styleable.EasyCountDownTextureView_easyCountTimeSize,
-                this.dp2px(DEFAULT_COLON_TEXT_SIZE)));
-        this.timePaint.setStrokeWidth(
-            typedArray.getDimension(R.styleable.EasyCountDownTextureView_easyCountTimeStroke,
-                this.dp2px(DEFAULT_TIME_PAINT_STROKE)));
-        this.timePaint.setStyle(Paint.Style.FILL_AND_STROKE);
-        this.timePaint.setTextAlign(Paint.Align.CENTER);
-        this.timePaint.setStrokeCap(Paint.Cap.ROUND);
-    }
-
-
-    private void initRectBorderPaint(@NonNull final TypedArray typedArray) {
-        final float rectBorderStroke = typedArray.getDimension(
-            R.styleable.EasyCountDownTextureView_easyCountRectBorderStroke, Float.MIN_VALUE);
-        this.checkRectBorder(rectBorderStroke);
-        if (!this.drawRectBorder) return;
-        this.rectBorderPaint = new Paint();
-        this.rectBorderPaint.setAntiAlias(true);
-        this.rectBorderPaint.setColor(
-            typedArray.getColor(R.styleable.EasyCountDownTextureView_easyCountRectBorderColor,
-                DEFAULT_COLOR_RECT_BORDER));
-        this.rectBorderPaint.setStrokeWidth(rectBorderStroke);
-        this.rectBorderPaint.setStyle(Paint.Style.STROKE);
-        this.rectBorderPaint.setTextAlign(Paint.Align.CENTER);
-        this.rectBorderPaint.setStrokeCap(Paint.Cap.SQUARE);
-    }
-
-
-    private void initBackgroundPaint(@NonNull final TypedArray typedArray) {
-        this.backgroundPaint = new Paint();
-        this.backgroundPaint.setAntiAlias(true);
-        this.backgroundPaint.setColor(
-            typedArray.getColor(R.styleable.EasyCountDownTextureView_easyCountBackgroundColor,
-                DEFAULT_COLOR_BACKGROUND));
-        this.backgroundPaint.setStyle(Paint.Style.FILL_AND_STROKE);
-        this.backgroundPaint.setStrokeWidth(this.dp2px(DEFAULT_BACKGROUND_PAINT_WIDTH));
-        this.backgroundPaint.setTextAlign(Paint.Align.CENTER);
-        this.backgroundPaint.setStrokeCap(Paint.Cap.ROUND);
-    }
-
-
-    private void checkRectBorder(final float rectBorder) {
-        this.drawRectBorder = rectBorder != Float.MIN_VALUE;
-    }
-
-
     private void updateTime() {
-        this.millisInFuture = this.timeHour * ONE_HOUR + this.timeMinute * ONE_MINUTE +
-            this.timeSecond * ONE_SECOND;
-        this.setTime(this.millisInFuture);
+        this.setTime(this.timeDay * EasyTime.ONE_DAY + this.timeHour * EasyTime.ONE_HOUR +
+            this.timeMinute * EasyTime.ONE_MINUTE + this.timeSecond * EasyTime.ONE_SECOND);
     }
 
 
     private void refitBackgroundAttribute() {
-        this.paddingLeft = this.getPaddingLeft();
-        this.paddingTop = this.getPaddingTop();
-        this.paddingRight = this.getPaddingRight();
-        this.paddingBottom = this.getPaddingBottom();
+        synchronized (this.tickLock) {
+            this.renderer.setPadding(this.getPaddingLeft(), this.getPaddingTop());
+            this.fullRedraw = true;
+        }
+    }
 
-        this.firstTranslateX = this.rectWidth + this.rectSpacing + paddingLeft;
-        this.secondTranslateX = this.rectWidth * 2 + this.rectSpacing * 2 + paddingLeft;
-        this.firstTranslateColonX = this.firstTranslateX - this.rectSpacing / 2;
-        this.secondTranslateColonX = this.secondTranslateX - this.rectSpacing / 2;
 
-        this.backgroundRectF = new RectF(0, 0, this.rectWidth, this.rectHeight);
+    /**
+     * TextureView sizes the buffer to the view on every surface or size change,
+     * shrink it to the content again and show it 1:1 at the top left
+     */
+    private void refitBuffer() {
+        final SurfaceTexture surface = this.getSurfaceTexture();
+        final int width = this.getWidth();
+        final int height = this.getHeight();
+        if (surface == null || width <= 0 || height <= 0) return;
+        if (!this.fitBuffer) {
+            surface.setDefaultBufferSize(width, height);
+            if (this.bufferTransformInstalled) {
+                this.setTransform(null);
+                this.bufferTransformInstalled = false;
+            }
+            return;
+        }
+        synchronized (this.tickLock) {
+            this.renderer.getSegmentBounds(this.renderer.getFirstSegment(), this.contentBounds);
+            this.fullRedraw = true;
+        }
+        final int bufferWidth = Math.max(1,
+            Math.min(width, this.contentBounds.right + this.getPaddingRight()));
+        final int bufferHeight = Math.max(1,
+            Math.min(height, this.contentBounds.bottom + this.getPaddingBottom()));
+        surface.setDefaultBufferSize(bufferWidth, bufferHeight);
+        this.bufferTransform.setScale((float) bufferWidth / width, (float) bufferHeight / height);
+        this.setTransform(this.bufferTransform);
+        this.bufferTransformInstalled = true;
     }
 
 
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
         super.onMeasure(widthMeasureSpec, heightMeasureSpec);
-
-        this.viewWidth = MeasureSpec.getSize(widthMeasureSpec);
-        this.viewHeight = MeasureSpec.getSize(heightMeasureSpec);
-
-        final int widthMode = MeasureSpec.getMode(widthMeasureSpec);
-        final int heightMode = MeasureSpec.getMode(heightMeasureSpec);
-
-        float resultWidth;
-        float resultHeight;
-
-        switch (widthMode) {
-            // wrap_content
-            case MeasureSpec.AT_MOST:
-            case MeasureSpec.UNSPECIFIED:
-                resultWidth = this.defaultWrapContentWidth;
-                break;
-            // match_parent
-            case MeasureSpec.EXACTLY:
-            default:
-                resultWidth = Math.max(this.viewWidth, this.defaultWrapContentWidth);
-                break;
-        }
-        switch (heightMode) {
-            // wrap_content
-            case MeasureSpec.AT_MOST:
-            case MeasureSpec.UNSPECIFIED:
-                resultHeight = this.defaultWrapContentHeight;
-                break;
-            // match_parent
-            case MeasureSpec.EXACTLY:
-            default:
-                resultHeight = Math.max(this.viewHeight, this.defaultWrapContentHeight);
-                break;
-        }
-        resultWidth += (this.paddingLeft + this.paddingRight);
-        resultHeight += (this.paddingTop + this.paddingBottom);
-        this.setMeasuredDimension((int) resultWidth, (int) resultHeight);
+        this.setMeasuredDimension(
+            EasyCountDownRenderer.measureSize(widthMeasureSpec,
+                this.renderer.getDefaultWrapContentWidth(),
+                this.getPaddingLeft() + this.getPaddingRight()),
+            EasyCountDownRenderer.measureSize(heightMeasureSpec,
+                this.renderer.getDefaultWrapContentHeight(),
+                this.getPaddingTop() + this.getPaddingBottom()));
     }
 
 
     @Override
     protected void onSizeChanged(int width, int height, int oldWidth, int oldHeight) {
         super.onSizeChanged(width, height, oldWidth, oldHeight);
-        this.viewWidth = width;
-        this.viewHeight = height;
         this.refitBackgroundAttribute();
         this.invalidate();
     }
 
 
+    @Override
+    public void onRtlPropertiesChanged(int layoutDirection) {
+        super.onRtlPropertiesChanged(layoutDirection);
+        // called while resolving attributes, before init
+        if (this.renderer == null) return;
+        synchronized (this.tickLock) {
+            this.renderer.setRtl(layoutDirection == LAYOUT_DIRECTION_RTL);
+            this.fullRedraw = true;
+        }
+    }
+
+
+    public void setTimeDay(final int timeDay) {
+        this.timeDay = timeDay;
+        this.updateTime();
+    }
+
+
     public void setTimeHour(final int timeHour) {
         this.timeHour = timeHour;
         this.updateTime();
@@ -414,90 +503,345 @@ public class EasyCountDownTextureView extends TextureView
 
 
     public void setRectWidth(final float rectWidthDp) {
-        this.rectWidth = this.dp2px(rectWidthDp);
-        this.refitBackgroundAttribute();
+        synchronized (this.tickLock) {
+            this.renderer.setRectWidth(this.dp2px(rectWidthDp));
+            this.fullRedraw = true;
+        }
+        this.refitBuffer();
+        this.requestLayout();
     }
 
 
     public void setRectHeight(final float rectHeightDp) {
-        this.rectHeight = this.dp2px(rectHeightDp);
-        this.refitBackgroundAttribute();
+        synchronized (this.tickLock) {
+            this.renderer.setRectHeight(this.dp2px(rectHeightDp));
+            this.fullRedraw = true;
+        }
+        this.refitBuffer();
+        this.requestLayout();
     }
 
 
     public void setRectSpacing(final float rectSpacingDp) {
-        this.rectSpacing = this.dp2px(rectSpacingDp);
-        this.refitBackgroundAttribute();
+        synchronized (this.tickLock) {
+            this.renderer.setRectSpacing(this.dp2px(rectSpacingDp));
+            this.fullRedraw = true;
+        }
+        this.refitBuffer();
+        this.requestLayout();
+    }
+
+
+    /**
+     * Show days in their own box, otherwise hours go beyond 23
+     *
+     * @param showDays showDays
+     */
+    public void setShowDays(final boolean showDays) {
+        synchronized (this.tickLock) {
+            this.renderer.setShowDays(showDays);
+            this.fullRedraw = true;
+        }
+        this.refitBuffer();
+        this.refitTickInterval();
+        this.requestLayout();
+    }
+
+
+    /**
+     * Choose the boxes, {@link #FIELD_DAY} | {@link #FIELD_HOUR} | {@link #FIELD_MINUTE}
+     * for DD:HH:MM, for example. The first box takes the larger units, and the
+     * count down only wakes up when the last box changes
+     *
+     * @param fields FIELD_* flags
+     */
+    public void setFields(final int fields) {
+        synchronized (this.tickLock) {
+            this.renderer.setFields(fields);
+            this.fullRedraw = true;
+        }
+        this.refitBuffer();
+        this.refitTickInterval();
+        this.requestLayout();
+    }
+
+
+    public int getFields() {
+        synchronized (this.tickLock) {
+            return this.renderer.getFields();
+        }
+    }
+
+
+    /**
+     * Show a fraction of a second after the seconds, and redraw on every display
+     * frame once less than withinSeconds are left
+     *
+     * @param precision {@link #SUB_SECOND_NONE}, {@link #SUB_SECOND_TENTHS},
+     * {@link #SUB_SECOND_HUNDREDTHS} or {@link #SUB_SECOND_MILLIS}
+     * @param withinSeconds withinSeconds
+     */
+    public void setSubSecond(final int precision, final int withinSeconds) {
+        this.subSecondWithin = withinSeconds;
+        synchronized (this.tickLock) {
+            this.renderer.setSubSecondPrecision(precision);
+            this.fullRedraw = true;
+        }
+        this.refitBuffer();
+        this.refitTickInterval();
+        this.requestLayout();
+    }
+
+
+    /**
+     * Tick once per unit of the last box, on every frame for the fraction
+     */
+    private void refitTickInterval() {
+        final long tickUnit;
+        final boolean subSecond;
+        synchronized (this.tickLock) {
+            tickUnit = this.renderer.getTickUnit();
+            subSecond = this.renderer.hasSubSecond();
+        }
+        this.controller.setTickInterval(tickUnit,
+            subSecond ? this.subSecondWithin * EasyTime.ONE_SECOND : 0L);
+    }
+
+
+    /**
+     * Animate a changed segment for durationMillis, at most half a unit. Only the
+     * transition is drawn on every frame, then the count down ticks once per unit
+     * again. Not for the fraction, it ticks on every frame anyway
+     *
+     * @param transition {@link #TRANSITION_NONE}, {@link #TRANSITION_SLIDE} or
+     * {@link #TRANSITION_FLIP}
+     * @param durationMillis durationMillis
+     */
+    public void setTransition(final int transition, final long durationMillis) {
+        synchronized (this.tickLock) {
+            this.renderer.setTransition(transition, durationMillis);
+        }
+    }
+
+
+    /**
+     * Replace the colons and the dot
+     *
+     * @param separator between whole units, ":" by default
+     * @param fractionSeparator in front of the fraction, "." by default
+     */
+    public void setSeparators(@NonNull final String separator,
+                              @NonNull final String fractionSeparator) {
+        synchronized (this.tickLock) {
+            this.renderer.setSeparators(separator, fractionSeparator);
+            this.fullRedraw = true;
+        }
+    }
+
+
+    /**
+     * Size the surface buffer to the boxes and padding instead of the whole view,
+     * less buffer memory when the view is stretched to match_parent. Fitting
+     * replaces the transform of the view, turning it off resets only that one
+     *
+     * @param fitBuffer fitBuffer
+     */
+    public void setFitBuffer(final boolean fitBuffer) {
+        this.fitBuffer = fitBuffer;
+        this.refitBuffer();
+    }
+
+
+    /**
+     * Fill the surface with color before drawing the boxes. An opaque color makes
+     * the surface opaque, composited without blending, for a solid host background
+     *
+     * @param backdropColor backdropColor, {@link Color#TRANSPARENT} by default
+     */
+    public void setBackdropColor(final int backdropColor) {
+        synchronized (this.tickLock) {
+            this.backdropColor = backdropColor;
+            this.fullRedraw = true;
+        }
+        this.setOpaque(Color.alpha(backdropColor) == 0xFF);
     }
 
 
     public void setAutoResume(final boolean autoResume) {
-        this.autoResume = autoResume;
+        this.controller.setAutoResume(autoResume);
+    }
+
+
+    /**
+     * How a late tick catches up with the deadline
+     *
+     * @param catchUpPolicy {@link #CATCH_UP_SKIP} or {@link #CATCH_UP_DELAY}
+     */
+    public void setCatchUpPolicy(final int catchUpPolicy) {
+        this.controller.getEngine().setCatchUpPolicy(catchUpPolicy);
     }
 
 
     public void setEasyCountDownListener(
         @NonNull final EasyCountDownListener easyCountDownListener) {
         this.easyCountDownListener = easyCountDownListener;
-        this.mainHandler = new MainHandler(easyCountDownListener);
+        this.mainHandler.setListener(easyCountDownListener);
+    }
+
+
+    /**
+     * The time left on the main thread, every second
+     *
+     * @param easyCountDownTickListener easyCountDownTickListener, null to remove
+     */
+    public void setEasyCountDownTickListener(
+        @Nullable final EasyCountDownTickListener easyCountDownTickListener) {
+        this.setEasyCountDownTickListener(easyCountDownTickListener, EasyTime.ONE_SECOND, 0L);
+    }
+
+
+    /**
+     * The time left on the main thread, only when it crosses a unit boundary,
+     * and on every tick once less than everyTickWithinMillis is left. Also while
+     * hidden, the count down then keeps ticking without drawing
+     *
+     * @param easyCountDownTickListener easyCountDownTickListener, null to remove
+     * @param unitMillis {@link EasyTime#ONE_MINUTE} for every minute, for example
+     * @param everyTickWithinMillis 10 * {@link EasyTime#ONE_SECOND} for every tick of the
+     * last ten seconds, for example
+     */
+    public void setEasyCountDownTickListener(
+        @Nullable final EasyCountDownTickListener easyCountDownTickListener,
+        final long unitMillis,
+        final long everyTickWithinMillis) {
+        this.mainHandler.setTickListener(easyCountDownTickListener, unitMillis,
+            everyTickWithinMillis);
+        // a hidden count down sleeps until the deadline otherwise
+        this.controller.refitTickListener();
     }
 
 
     public boolean isRunningState() {
-        return this.runningState;
+        return this.controller.isRunning();
+    }
+
+
+    /**
+     * Tick jitter, missed ticks, lockCanvas, draw and post times of this view
+     *
+     * @return metrics
+     */
+    @NonNull
+    public EasyRenderMetrics getMetrics() {
+        return this.controller.getEngine().getMetrics();
     }
 
 
     public float getRectWidth() {
-        return this.rectWidth;
+        synchronized (this.tickLock) {
+            return this.renderer.getRectWidth();
+        }
     }
 
 
     public float getRectHeight() {
-        return this.rectHeight;
+        synchronized (this.tickLock) {
+            return this.renderer.getRectHeight();
+        }
     }
 
 
     public float getRectSpacing() {
-        return this.rectSpacing;
+        synchronized (this.tickLock) {
+            return this.renderer.getRectSpacing();
+        }
+    }
+
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        this.updateHidden();
+    }
+
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        this.mainHandler.clear();
+        this.updateHidden();
+    }
+
+
+    @Override
+    protected void onVisibilityChanged(@NonNull View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        this.updateHidden();
+    }
+
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        this.updateHidden();
+    }
+
+
+    /**
+     * Suspend drawing while this view, a parent or the window is not visible. The
+     * deadline keeps running, the view draws right away when it is shown again
+     */
+    private void updateHidden() {
+        // android:visibility is applied by the View constructor, before init
+        if (this.renderer == null) return;
+        final boolean hidden = this.getWindowVisibility() != VISIBLE || !this.isShown();
+        if (hidden == this.controller.isHidden()) return;
+        if (!hidden) this.fullRedraw = true;
+        this.controller.setHidden(hidden);
+    }
+
+
+    /**
+     * @return true while hidden or without a surface, nothing is drawn
+     */
+    public boolean isRenderSuspended() {
+        return this.controller.isRenderSuspended();
     }
 
 
     @Override
     public void onSurfaceTextureAvailable(SurfaceTexture surface, int width, int height) {
         Log.i(TAG, "[onSurfaceTextureAvailable]");
-        this.startAndRestoreTime();
+        this.refitBuffer();
+        this.fullRedraw = true;
+        // a running count down draws right away, the first surface starts it
+        this.controller.attach();
     }
 
 
     @Override
     public void onSurfaceTextureSizeChanged(SurfaceTexture surface, int width, int height) {
-
+        this.refitBuffer();
+        this.fullRedraw = true;
     }
 
 
     @Override
     public boolean onSurfaceTextureDestroyed(SurfaceTexture surface) {
         Log.i(TAG, "[onSurfaceTextureDestroyed]");
-        this.stopAndRecordTime();
+        // runs on without drawing and still completes
+        this.controller.detach();
         return true;
     }
 
 
     public void stopAndRecordTime() {
-        if (this.autoResume) {
-            this.pauseTime = SystemClock.elapsedRealtime();
-        }
-        this.stop();
+        this.controller.stopAndRecordTime();
     }
 
 
     public void startAndRestoreTime() {
-        if (this.pauseTime > 0) {
-            this.millisInFuture -= (SystemClock.elapsedRealtime() - this.pauseTime);
-            this.pauseTime = 0;
-        }
-        this.start();
+        this.controller.startAndRestoreTime();
     }
 
 
@@ -508,35 +852,91 @@ public class EasyCountDownTextureView extends TextureView
 
 
     public void start() {
-        if (this.runningState) return;
-        this.drawZeroZeroZero();
-        if (millisInFuture > 0) {
-            this.easyThread = new EasyThread();
-            this.easyThread.startThread();
-            this.easyThread.start();
-            this.runningState = true;
-            if (this.easyCountDownListener != null) {
-                this.easyCountDownListener.onCountDownStart();
-            }
-        } else {
-            if (this.easyCountDownListener != null) {
-                this.easyCountDownListener.onCountDownTimeError();
-            }
-            this.runningState = false;
-        }
+        this.controller.start();
     }
 
 
     public void stop() {
-        if (!this.runningState) return;
-        if (this.easyThread != null) {
-            this.easyThread.interrupt();
-            this.easyThread = null;
-        }
-        if (this.easyCountDownListener != null) {
-            this.easyCountDownListener.onCountDownStop(this.millisInFuture);
+        this.controller.stop();
+    }
+
+
+    /**
+     * Freeze the time left on screen, {@link #resume()} runs on from it.
+     * Safe from any thread: a tick of a count down that is not running stops
+     * itself, racing calls never leave it ticking
+     */
+    public void pause() {
+        this.controller.pause();
+    }
+
+
+    public void resume() {
+        this.controller.resume();
+    }
+
+
+    public boolean isPaused() {
+        return this.controller.isPaused();
+    }
+
+
+    /**
+     * Keeps the elapsed realtime deadline, it survives the process but not a reboot,
+     * just like the saved state
+     */
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        final SavedState savedState = new SavedState(super.onSaveInstanceState());
+        savedState.deadline = this.controller.getSavedDeadline();
+        savedState.timeLeft = this.controller.getEngine().getTimeLeft();
+        savedState.paused = this.controller.isPaused();
+        return savedState;
+    }
+
+
+    @Override
+    protected void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof SavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
         }
-        this.runningState = false;
+        final SavedState savedState = (SavedState) state;
+        super.onRestoreInstanceState(savedState.getSuperState());
+        this.controller.restoreState(savedState.deadline, savedState.timeLeft,
+            savedState.paused);
+    }
+
+
+    @NonNull
+    EasyCountDownController getController() {
+        return this.controller;
+    }
+
+
+    @NonNull
+    EasyCountDownEngine getEngine() {
+        return this.controller.getEngine();
+    }
+
+
+    /**
+     * Tick and draw on the thread of ticker instead of the default one,
+     * ignored while in a group
+     *
+     * @param ticker ticker, null for {@link EasyTicker#getDefault()}
+     */
+    public void setTicker(@Nullable final EasyTicker ticker) {
+        this.ticker = ticker;
+        this.controller.refitTicker();
+    }
+
+
+    @NonNull
+    @Override
+    public EasyTicker getTicker() {
+        final EasyTicker ticker = this.ticker;
+        return ticker != null ? ticker : EasyTicker.getDefault();
     }
 
 
@@ -544,9 +944,33 @@ public class EasyCountDownTextureView extends TextureView
      * Start count down by date
      *
      * @param date date
+     * @deprecated the time of a date is taken as a duration, use {@link #setDeadline(long)}
      */
+    @Deprecated
     public void setTime(@NonNull final Date date) {
-        this.millisInFuture = date.getTime();
+        this.setTime(date.getTime());
+    }
+
+
+    /**
+     * Count down to a wall clock time of the server, corrected by
+     * {@link EasyTicker#getServerTime()}. Device clock changes move nothing.
+     *
+     * @param epochMillis epochMillis
+     */
+    public void setDeadline(final long epochMillis) {
+        this.setDeadline(epochMillis, EasyTicker.getServerTime());
+    }
+
+
+    /**
+     * Count down to a wall clock time of serverTime
+     *
+     * @param epochMillis epochMillis
+     * @param serverTime serverTime
+     */
+    public void setDeadline(final long epochMillis, @NonNull final EasyServerTime serverTime) {
+        this.controller.setDeadline(serverTime.toMonotonic(epochMillis));
     }
 
 
@@ -556,178 +980,187 @@ public class EasyCountDownTextureView extends TextureView
      * @param timeMillis timeMillis
      */
     public void setTime(final long timeMillis) {
-        this.millisInFuture = timeMillis;
-        this.calendar.setTimeInMillis(this.millisInFuture);
+        this.controller.setTime(timeMillis);
     }
 
 
-    private void drawZeroZeroZero() {
-        Canvas canvas = null;
-        try {
-            canvas = EasyCountDownTextureView.this.lockCanvas();
-            if (canvas == null) return;
-            this.drawTimeAndBackground(canvas, String.format(locale, LESS_THAN_TEN_FORMAT, 0),
-                String.format(locale, LESS_THAN_TEN_FORMAT, 0),
-                String.format(locale, LESS_THAN_TEN_FORMAT, 0));
-            unlockCanvasAndPost(canvas);
-        } catch (Exception e) {
-            e.printStackTrace();
-            unlockCanvasAndPost(canvas);
+    /**
+     * Called by the controller before a start
+     */
+    @Override
+    public void onTimeReset() {
+        synchronized (this.tickLock) {
+            this.fullRedraw = true;
+            this.transitionStartTime = 0L;
+            this.renderer.splitTime(0L, this.segmentValues);
+            this.drawTime(this.segmentValues);
         }
     }
 
 
-    private class EasyThread extends Thread {
-
-        private volatile boolean running = false;
-        private volatile boolean completed = false;
+    /**
+     * Repaint only the segments whose value changed since the last draw,
+     * everything after a surface or size change
+     */
+    private void drawTime(@NonNull final int[] values) {
+        final int fromSegment = this.getChangedSegment(values);
+        if (fromSegment > this.renderer.getLastSegment()) return;
+        this.drawSegments(values, fromSegment, null, 1f);
+    }
 
 
-        EasyThread() {
-            this.running = true;
+    /**
+     * @return the first segment that differs from the last draw, the first one after a
+     * surface or size change, after the last one if none
+     */
+    private int getChangedSegment(@NonNull final int[] values) {
+        final int lastSegment = this.renderer.getLastSegment();
+        int fromSegment = this.renderer.getFirstSegment();
+        if (this.fullRedraw) return fromSegment;
+        while (fromSegment <= lastSegment &&
+            values[fromSegment] == this.lastDrawnValues[fromSegment]) {
+            fromSegment++;
         }
+        return fromSegment;
+    }
 
 
-        final void startThread() {
-            this.completed = false;
-            this.running = true;
-        }
+    /**
+     * Start a transition instead of drawing the changed segments at once
+     *
+     * @return false if there is nothing to animate
+     */
+    private boolean startTransition(@NonNull final int[] values) {
+        if (this.fullRedraw) return false;
+        final long duration = this.renderer.getTransitionDuration(
+            this.controller.getEngine().getTickInterval());
+        if (duration <= 0) return false;
+        final int fromSegment = this.getChangedSegment(values);
+        if (fromSegment > this.renderer.getLastSegment()) return false;
+        System.arraycopy(this.lastDrawnValues, 0, this.transitionFromValues, 0,
+            EasyCountDownRenderer.SEGMENT_COUNT);
+        this.transitionFromSegment = fromSegment;
+        this.transitionDuration = duration;
+        this.transitionStartTime = this.controller.getEngine().getClock().now();
+        return true;
+    }
 
 
-        final void stopThread() {
-            this.completed = true;
-            this.running = false;
+    /**
+     * Draw one frame of the running transition
+     *
+     * @return false once the transition is over and its last frame is drawn
+     */
+    private boolean drawTransition(final long now) {
+        synchronized (this.tickLock) {
+            final float progress = Math.min(1f,
+                (float) (now - this.transitionStartTime) / this.transitionDuration);
+            this.drawSegments(this.segmentValues, this.transitionFromSegment,
+                this.transitionFromValues, progress);
+            if (progress < 1f) return true;
+            this.transitionStartTime = 0L;
+            return false;
         }
+    }
 
 
-        private int checkCalendarHour(final long millisInFuture, int calendarHour) {
-            final int days = (int) (millisInFuture / ONE_DAY);
-            if (days > 1) {
-                calendarHour += (days - 1) * 24;
+    /**
+     * Repaint from fromSegment to the last segment
+     *
+     * @param previousValues the values before a transition, null for none
+     * @param progress 0..1 of the transition
+     */
+    private void drawSegments(@NonNull final int[] values,
+                              int fromSegment,
+                              @Nullable final int[] previousValues,
+                              final float progress) {
+        final int firstSegment = this.renderer.getFirstSegment();
+        if (this.fullRedraw) fromSegment = firstSegment;
+        final EasyRenderMetrics metrics = this.controller.getEngine().getMetrics();
+        long startNanos = System.nanoTime();
+        Canvas canvas = null;
+        try {
+            if (fromSegment == firstSegment) {
+                canvas = this.lockCanvas();
+            } else {
+                // from the colon in front of the segment, it is repainted too
+                this.renderer.getSegmentBounds(fromSegment, this.requestedDirtyRect);
+                this.dirtyRect.set(this.requestedDirtyRect);
+                canvas = this.lockCanvas(this.dirtyRect);
+                // the surface could not keep the old pixels and grew the dirty region
+                if (!this.requestedDirtyRect.equals(this.dirtyRect)) {
+                    fromSegment = firstSegment;
+                }
             }
-            return calendarHour;
-        }
-
-
-        @Override
-        public void run() {
-            while (!this.completed) {
-                while (this.running) {
-                    Canvas canvas = null;
-                    try {
-                        synchronized (this) {
-                            lastRecordTime = SystemClock.elapsedRealtime();
-                            canvas = EasyCountDownTextureView.this.lockCanvas();
-                            if (canvas == null) continue;
-                            timeHour = calendar.get(Calendar.HOUR_OF_DAY);
-                            timeMinute = calendar.get(Calendar.MINUTE);
-                            timeSecond = calendar.get(Calendar.SECOND);
-                            drawTimeAndBackground(canvas,
-                                String.format(locale, LESS_THAN_TEN_FORMAT,
-                                    this.checkCalendarHour(millisInFuture, timeHour)),
-                                String.format(locale, LESS_THAN_TEN_FORMAT, timeMinute),
-                                String.format(locale, LESS_THAN_TEN_FORMAT, timeSecond));
-
-                            final long pastTime = SystemClock.elapsedRealtime() - lastRecordTime;
-                            if (pastTime < COUNT_DOWN_INTERVAL) {
-                                this.wait(COUNT_DOWN_INTERVAL - pastTime);
-                            }
-                            // refresh time
-                            millisInFuture -= 1000;
-                            if (millisInFuture < 0) {
-                                this.completed = true;
-                                this.running = false;
-                                // refresh runningState
-                                runningState = false;
-                                if (mainHandler != null) {
-                                    mainHandler.sendEmptyMessageDelayed(
-                                        MainHandler.WHAT_COUNT_DOWN_COMPLETED,
-                                        1000);
-                                }
-                                calendar.setTimeInMillis(0);
-                            } else {
-                                calendar.setTimeInMillis(millisInFuture);
-                            }
-                        }
-                    } catch (InterruptedException interruptedException) {
-                        final long intervalTime = SystemClock.elapsedRealtime() - lastRecordTime;
-                        Log.i(TAG,
-                            "[run]\t\t\t thread interrupted\t\t\t interval time: " + intervalTime,
-                            interruptedException);
-                        millisInFuture -= intervalTime;
-                        calendar.setTimeInMillis(millisInFuture);
-                        this.stopThread();
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                    } finally {
-                        try {
-                            unlockCanvasAndPost(canvas);
-                        } catch (Exception e) {
-                            e.printStackTrace();
-                        }
-                    }
+            if (canvas == null) return;
+            long nanos = System.nanoTime();
+            metrics.recordLockCanvas((nanos - startNanos) / 1000);
+            startNanos = nanos;
+            // clipped to the dirty region, transparent clears
+            canvas.drawColor(this.backdropColor, PorterDuff.Mode.SRC);
+            this.renderer.drawTimeAndBackground(canvas, values, fromSegment, previousValues,
+                progress);
+            System.arraycopy(values, 0, this.lastDrawnValues, 0,
+                EasyCountDownRenderer.SEGMENT_COUNT);
+            this.fullRedraw = false;
+            nanos = System.nanoTime();
+            metrics.recordDraw((nanos - startNanos) / 1000);
+            startNanos = nanos;
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            if (canvas != null) {
+                try {
+                    this.unlockCanvasAndPost(canvas);
+                    metrics.recordPost((System.nanoTime() - startNanos) / 1000);
+                } catch (Exception e) {
+                    e.printStackTrace();
                 }
             }
         }
     }
 
 
-    private void drawTimeAndBackground(@NonNull final Canvas canvas,
-                                       @NonNull final String hour,
-                                       @NonNull final String minute,
-                                       @NonNull final String second) {
-        // background
-        canvas.save();
-        canvas.translate(paddingLeft, paddingTop);
-        canvas.drawRoundRect(backgroundRectF, rectRadius, rectRadius, backgroundPaint);
-        // border
-        this.drawRectBorder(canvas, backgroundRectF, rectRadius, rectBorderPaint);
-        canvas.drawText(hour, backgroundRectF.centerX(), timePaintBaseLine, timePaint);
-        canvas.restore();
-
-        // colon
-        canvas.save();
-        canvas.translate(firstTranslateColonX, paddingTop);
-        canvas.drawText(COLON, 0, timePaintBaseLineFixed, colonPaint);
-        canvas.restore();
-
-        // background
-        canvas.save();
-        canvas.translate(firstTranslateX, paddingTop);
-        canvas.drawRoundRect(backgroundRectF, rectRadius, rectRadius, backgroundPaint);
-        // border
-        this.drawRectBorder(canvas, backgroundRectF, rectRadius, rectBorderPaint);
-        canvas.drawText(minute, backgroundRectF.centerX(), timePaintBaseLine, timePaint);
-        canvas.restore();
-
-        // colon
-        canvas.save();
-        canvas.translate(secondTranslateColonX, paddingTop);
-        canvas.drawText(COLON, 0, timePaintBaseLineFixed, colonPaint);
-        canvas.restore();
-
-        // background
-        canvas.save();
-        canvas.translate(secondTranslateX, paddingTop);
-        canvas.drawRoundRect(backgroundRectF, rectRadius, rectRadius, backgroundPaint);
-        // border
-        this.drawRectBorder(canvas, backgroundRectF, rectRadius, rectBorderPaint);
-        canvas.drawText(second, backgroundRectF.centerX(), timePaintBaseLine, timePaint);
-        canvas.restore();
+    /**
+     * Called on the {@link EasyTicker} thread, the controller does the timing
+     *
+     * @param now elapsed realtime
+     * @return the time of the next tick
+     */
+    @Override
+    public long onTick(final long now) {
+        // frames only while a transition runs, the engine waits
+        if (this.transitionStartTime > 0) {
+            // hidden, shown again with a full redraw
+            if (!this.controller.isRenderSuspended() && this.drawTransition(now)) {
+                return TICK_NEXT_FRAME;
+            }
+            this.transitionStartTime = 0L;
+            final long pendingTickTime = this.pendingTickTime;
+            if (pendingTickTime == TICK_STOP || pendingTickTime > now) return pendingTickTime;
+        }
+        final long nextTickTime = this.controller.onTick(now);
+        if (this.transitionStartTime > 0 && nextTickTime != TICK_NEXT_FRAME) {
+            this.pendingTickTime = nextTickTime;
+            return TICK_NEXT_FRAME;
+        }
+        return nextTickTime;
     }
 
 
-    private void drawRectBorder(@NonNull final Canvas canvas,
-                                @NonNull final RectF rect,
-                                final float rectRadius,
-                                @Nullable Paint paint) {
-        if (paint == null) return;
-        if (rectRadius > 0) {
-            paint.setStrokeCap(Paint.Cap.ROUND);
-            canvas.drawRoundRect(rect, rectRadius, rectRadius, paint);
-        } else {
-            paint.setStrokeCap(Paint.Cap.SQUARE);
-            canvas.drawRect(rect, paint);
+    /**
+     * Called on the {@link EasyTicker} thread by the controller, only while drawn
+     *
+     * @param timeLeft drawn time left
+     * @param frameTick true if ticking on every frame
+     */
+    @Override
+    public void onTimeChanged(final long timeLeft, final boolean frameTick) {
+        synchronized (this.tickLock) {
+            this.renderer.splitTime(timeLeft, this.segmentValues);
+            if (frameTick || !this.startTransition(this.segmentValues)) {
+                this.drawTime(this.segmentValues);
+            }
         }
     }
 
@@ -769,4 +1202,16 @@ public class EasyCountDownTextureView extends TextureView
 
     }
 
+
+    public interface EasyCountDownTickListener {
+
+        /**
+         * When the drawn time left changes, coalesced on a busy main thread
+         *
+         * @param millisInFuture millisInFuture
+         */
+        void onCountDownTick(long millisInFuture);
+
+    }
+
 }
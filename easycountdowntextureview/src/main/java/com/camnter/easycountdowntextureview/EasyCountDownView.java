@@ -0,0 +1,723 @@
+/*
+ * Copyright (C) 2016 CaMnter yuanyu.camnter@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.camnter.easycountdowntextureview;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.os.Build;
+import android.os.Parcelable;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.AttributeSet;
+import android.util.DisplayMetrics;
+import android.util.TypedValue;
+import android.view.View;
+import com.camnter.easycountdowntextureview.EasyCountDownTextureView.EasyCountDownListener;
+import com.camnter.easycountdowntextureview.EasyCountDownTextureView.EasyCountDownTickListener;
+import com.camnter.easycountdowntextureview.EasyCountDownTextureView.MainHandler;
+import com.camnter.easycountdowntextureview.EasyCountDownTextureView.SavedState;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * Description：EasyCountDownView
+ * Created by：CaMnter
+ *
+ * The same count down as {@link EasyCountDownTextureView}, with the same
+ * attributes, drawn in onDraw. No SurfaceTexture and no buffer queue of its
+ * own: the boxes go into the display list of the window, the shared
+ * {@link EasyTicker} only invalidates the view when a shown value changes.
+ * Cheaper for many small count downs on one screen.
+ */
+public class EasyCountDownView extends View
+    implements EasyTickable, EasyCountDownController.Host {
+
+    private static final int DEFAULT_SUB_SECOND_WITHIN = 60;
+
+    private DisplayMetrics metrics;
+
+    // null for EasyTicker.getDefault()
+    private volatile EasyTicker ticker;
+
+    private int timeDay;
+    private int timeHour;
+    private int timeMinute;
+    private int timeSecond;
+
+    private int subSecondWithin = DEFAULT_SUB_SECOND_WITHIN;
+
+    private final Object tickLock = new Object();
+
+    // attributes, layout and drawing, only touched under tickLock
+    private EasyCountDownRenderer renderer;
+    // drawn by onDraw
+    private final int[] segmentValues = new int[EasyCountDownRenderer.SEGMENT_COUNT];
+    // split by the ticker thread
+    private final int[] tickValues = new int[EasyCountDownRenderer.SEGMENT_COUNT];
+
+    /**************
+     * Transition *
+     **************/
+    private final int[] transitionFromValues = new int[EasyCountDownRenderer.SEGMENT_COUNT];
+    // 0 while no transition runs
+    private long transitionStartTime = 0L;
+    private long transitionDuration;
+
+    // the main handler holds it weakly only
+    private EasyCountDownListener easyCountDownListener;
+    private final MainHandler mainHandler = new MainHandler();
+    // all timing and registration, this view only renders
+    private final EasyCountDownController controller = new EasyCountDownController(
+        EasyTicker.ELAPSED_REALTIME_CLOCK, this, this, this.mainHandler);
+
+
+    public EasyCountDownView(Context context) {
+        super(context);
+        this.init(context, null);
+    }
+
+
+    public EasyCountDownView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        this.init(context, attrs);
+    }
+
+
+    public EasyCountDownView(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        this.init(context, attrs);
+    }
+
+
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    public EasyCountDownView(Context context, AttributeSet attrs, int defStyleAttr, int defStyleRes) {
+        super(context, attrs, defStyleAttr, defStyleRes);
+        this.init(context, attrs);
+    }
+
+
+    private void init(Context context, AttributeSet attrs) {
+        this.metrics = this.getResources().getDisplayMetrics();
+
+        TypedArray typedArray = context.obtainStyledAttributes(attrs,
+            R.styleable.EasyCountDownTextureView);
+        this.renderer = new EasyCountDownRenderer(this.metrics, typedArray);
+        this.renderer.setPadding(this.getPaddingLeft(), this.getPaddingTop());
+        this.subSecondWithin = typedArray.getInteger(
+            R.styleable.EasyCountDownTextureView_easyCountSubSecondWithin,
+            DEFAULT_SUB_SECOND_WITHIN);
+        this.refitTickInterval();
+        this.timeDay = typedArray.getInteger(R.styleable.EasyCountDownTextureView_easyCountDay,
+            0);
+        this.timeHour = typedArray.getInteger(R.styleable.EasyCountDownTextureView_easyCountHour,
+            0);
+        this.timeMinute = typedArray.getInteger(
+            R.styleable.EasyCountDownTextureView_easyCountMinute, 0);
+        this.timeSecond = typedArray.getInteger(
+            R.styleable.EasyCountDownTextureView_easyCountSecond, 0);
+        typedArray.recycle();
+
+        this.updateTime();
+    }
+
+
+    private void updateTime() {
+        this.setTime(this.timeDay * EasyTime.ONE_DAY + this.timeHour * EasyTime.ONE_HOUR +
+            this.timeMinute * EasyTime.ONE_MINUTE + this.timeSecond * EasyTime.ONE_SECOND);
+    }
+
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+        this.setMeasuredDimension(
+            EasyCountDownRenderer.measureSize(widthMeasureSpec,
+                this.renderer.getDefaultWrapContentWidth(),
+                this.getPaddingLeft() + this.getPaddingRight()),
+            EasyCountDownRenderer.measureSize(heightMeasureSpec,
+                this.renderer.getDefaultWrapContentHeight(),
+                this.getPaddingTop() + this.getPaddingBottom()));
+    }
+
+
+    @Override
+    protected void onSizeChanged(int width, int height, int oldWidth, int oldHeight) {
+        super.onSizeChanged(width, height, oldWidth, oldHeight);
+        synchronized (this.tickLock) {
+            this.renderer.setPadding(this.getPaddingLeft(), this.getPaddingTop());
+        }
+        this.invalidate();
+    }
+
+
+    @Override
+    public void onRtlPropertiesChanged(int layoutDirection) {
+        super.onRtlPropertiesChanged(layoutDirection);
+        // called while resolving attributes, before init
+        if (this.renderer == null) return;
+        synchronized (this.tickLock) {
+            this.renderer.setRtl(layoutDirection == LAYOUT_DIRECTION_RTL);
+        }
+        this.invalidate();
+    }
+
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        final long startNanos = System.nanoTime();
+        final boolean inTransition;
+        synchronized (this.tickLock) {
+            float progress = 1f;
+            if (this.transitionStartTime > 0) {
+                progress = Math.min(1f,
+                    (float) (this.controller.getEngine().getClock().now() -
+                        this.transitionStartTime) /
+                        this.transitionDuration);
+                if (progress >= 1f) this.transitionStartTime = 0L;
+            }
+            inTransition = progress < 1f;
+            this.renderer.drawTimeAndBackground(canvas, this.segmentValues,
+                this.renderer.getFirstSegment(), inTransition ? this.transitionFromValues : null,
+                progress);
+        }
+        // frames only while a transition runs
+        if (inTransition) this.invalidateOnAnimation();
+        // recording only, the display list is drawn later by the render thread
+        this.controller.getEngine().getMetrics().recordDraw((System.nanoTime() - startNanos) / 1000);
+    }
+
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        this.updateHidden();
+        // a running count down draws right away, the first attach starts it
+        this.controller.attach();
+    }
+
+
+    @Override
+    protected void onDetachedFromWindow() {
+        // runs on without drawing and still completes
+        this.controller.detach();
+        this.mainHandler.clear();
+        this.updateHidden();
+        super.onDetachedFromWindow();
+    }
+
+
+    @Override
+    protected void onVisibilityChanged(@NonNull View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        this.updateHidden();
+    }
+
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        this.updateHidden();
+    }
+
+
+    /**
+     * Suspend invalidation while this view, a parent or the window is not visible.
+     * The deadline keeps running, the view redraws right away when it is shown again
+     */
+    private void updateHidden() {
+        // android:visibility is applied by the View constructor, before init
+        if (this.renderer == null) return;
+        this.controller.setHidden(this.getWindowVisibility() != VISIBLE || !this.isShown());
+    }
+
+
+    /**
+     * @return true while hidden or out of the window, nothing is invalidated
+     */
+    public boolean isRenderSuspended() {
+        return this.controller.isRenderSuspended();
+    }
+
+
+    public void setTimeDay(final int timeDay) {
+        this.timeDay = timeDay;
+        this.updateTime();
+    }
+
+
+    public void setTimeHour(final int timeHour) {
+        this.timeHour = timeHour;
+        this.updateTime();
+    }
+
+
+    public void setTimeMinute(final int timeMinute) {
+        this.timeMinute = timeMinute;
+        this.updateTime();
+    }
+
+
+    public void setTimeSecond(final int timeSecond) {
+        this.timeSecond = timeSecond;
+        this.updateTime();
+    }
+
+
+    public void setRectWidth(final float rectWidthDp) {
+        synchronized (this.tickLock) {
+            this.renderer.setRectWidth(this.dp2px(rectWidthDp));
+        }
+        this.requestLayout();
+        this.invalidate();
+    }
+
+
+    public void setRectHeight(final float rectHeightDp) {
+        synchronized (this.tickLock) {
+            this.renderer.setRectHeight(this.dp2px(rectHeightDp));
+        }
+        this.requestLayout();
+        this.invalidate();
+    }
+
+
+    public void setRectSpacing(final float rectSpacingDp) {
+        synchronized (this.tickLock) {
+            this.renderer.setRectSpacing(this.dp2px(rectSpacingDp));
+        }
+        this.requestLayout();
+        this.invalidate();
+    }
+
+
+    /**
+     * Show days in their own box, otherwise hours go beyond 23
+     *
+     * @param showDays showDays
+     */
+    public void setShowDays(final boolean showDays) {
+        synchronized (this.tickLock) {
+            this.renderer.setShowDays(showDays);
+        }
+        this.refitTickInterval();
+        this.requestLayout();
+        this.invalidate();
+    }
+
+
+    /**
+     * Animate a changed segment, see {@link EasyCountDownTextureView#setTransition(int, long)}
+     *
+     * @param transition {@link EasyCountDownTextureView#TRANSITION_NONE},
+     * {@link EasyCountDownTextureView#TRANSITION_SLIDE} or
+     * {@link EasyCountDownTextureView#TRANSITION_FLIP}
+     * @param durationMillis durationMillis
+     */
+    public void setTransition(final int transition, final long durationMillis) {
+        synchronized (this.tickLock) {
+            this.renderer.setTransition(transition, durationMillis);
+        }
+    }
+
+
+    /**
+     * Replace the colons and the dot
+     *
+     * @param separator between whole units, ":" by default
+     * @param fractionSeparator in front of the fraction, "." by default
+     */
+    public void setSeparators(@NonNull final String separator,
+                              @NonNull final String fractionSeparator) {
+        synchronized (this.tickLock) {
+            this.renderer.setSeparators(separator, fractionSeparator);
+        }
+        this.invalidate();
+    }
+
+
+    /**
+     * Show a fraction of a second after the seconds, and redraw on every display
+     * frame once less than withinSeconds are left
+     *
+     * @param precision {@link EasyCountDownTextureView#SUB_SECOND_NONE},
+     * {@link EasyCountDownTextureView#SUB_SECOND_TENTHS},
+     * {@link EasyCountDownTextureView#SUB_SECOND_HUNDREDTHS} or
+     * {@link EasyCountDownTextureView#SUB_SECOND_MILLIS}
+     * @param withinSeconds withinSeconds
+     */
+    public void setSubSecond(final int precision, final int withinSeconds) {
+        this.subSecondWithin = withinSeconds;
+        synchronized (this.tickLock) {
+            this.renderer.setSubSecondPrecision(precision);
+        }
+        this.refitTickInterval();
+        this.requestLayout();
+        this.invalidate();
+    }
+
+
+    /**
+     * Choose the boxes, see {@link EasyCountDownTextureView#setFields(int)}
+     *
+     * @param fields {@link EasyCountDownTextureView#FIELD_DAY} and the other FIELD_* flags
+     */
+    public void setFields(final int fields) {
+        synchronized (this.tickLock) {
+            this.renderer.setFields(fields);
+        }
+        this.refitTickInterval();
+        this.requestLayout();
+        this.invalidate();
+    }
+
+
+    public int getFields() {
+        synchronized (this.tickLock) {
+            return this.renderer.getFields();
+        }
+    }
+
+
+    /**
+     * Tick once per unit of the last box, on every frame for the fraction
+     */
+    private void refitTickInterval() {
+        final long tickUnit;
+        final boolean subSecond;
+        synchronized (this.tickLock) {
+            tickUnit = this.renderer.getTickUnit();
+            subSecond = this.renderer.hasSubSecond();
+        }
+        this.controller.setTickInterval(tickUnit,
+            subSecond ? this.subSecondWithin * EasyTime.ONE_SECOND : 0L);
+    }
+
+
+    public void setAutoResume(final boolean autoResume) {
+        this.controller.setAutoResume(autoResume);
+    }
+
+
+    /**
+     * How a late tick catches up with the deadline
+     *
+     * @param catchUpPolicy {@link EasyCountDownTextureView#CATCH_UP_SKIP} or
+     * {@link EasyCountDownTextureView#CATCH_UP_DELAY}
+     */
+    public void setCatchUpPolicy(final int catchUpPolicy) {
+        this.controller.getEngine().setCatchUpPolicy(catchUpPolicy);
+    }
+
+
+    public void setEasyCountDownListener(
+        @NonNull final EasyCountDownListener easyCountDownListener) {
+        this.easyCountDownListener = easyCountDownListener;
+        this.mainHandler.setListener(easyCountDownListener);
+    }
+
+
+    /**
+     * The time left on the main thread, every second
+     *
+     * @param easyCountDownTickListener easyCountDownTickListener, null to remove
+     */
+    public void setEasyCountDownTickListener(
+        @Nullable
+        final EasyCountDownTickListener easyCountDownTickListener) {
+        this.setEasyCountDownTickListener(easyCountDownTickListener, EasyTime.ONE_SECOND, 0L);
+    }
+
+
+    /**
+     * The time left on the main thread, only when it crosses a unit boundary,
+     * and on every tick once less than everyTickWithinMillis is left. Also while
+     * hidden, the count down then keeps ticking without invalidating
+     *
+     * @param easyCountDownTickListener easyCountDownTickListener, null to remove
+     * @param unitMillis {@link EasyTime#ONE_MINUTE} for every minute, for example
+     * @param everyTickWithinMillis 10 * {@link EasyTime#ONE_SECOND} for every tick of the
+     * last ten seconds, for example
+     */
+    public void setEasyCountDownTickListener(
+        @Nullable final EasyCountDownTickListener easyCountDownTickListener,
+        final long unitMillis,
+        final long everyTickWithinMillis) {
+        this.mainHandler.setTickListener(easyCountDownTickListener, unitMillis,
+            everyTickWithinMillis);
+        // a hidden count down sleeps until the deadline otherwise
+        this.controller.refitTickListener();
+    }
+
+
+    public boolean isRunningState() {
+        return this.controller.isRunning();
+    }
+
+
+    /**
+     * Tick jitter, missed ticks and draw times of this view
+     *
+     * @return metrics
+     */
+    @NonNull
+    public EasyRenderMetrics getMetrics() {
+        return this.controller.getEngine().getMetrics();
+    }
+
+
+    public float getRectWidth() {
+        synchronized (this.tickLock) {
+            return this.renderer.getRectWidth();
+        }
+    }
+
+
+    public float getRectHeight() {
+        synchronized (this.tickLock) {
+            return this.renderer.getRectHeight();
+        }
+    }
+
+
+    public float getRectSpacing() {
+        synchronized (this.tickLock) {
+            return this.renderer.getRectSpacing();
+        }
+    }
+
+
+    public void stopAndRecordTime() {
+        this.controller.stopAndRecordTime();
+    }
+
+
+    public void startAndRestoreTime() {
+        this.controller.startAndRestoreTime();
+    }
+
+
+    public void start() {
+        this.controller.start();
+    }
+
+
+    public void stop() {
+        this.controller.stop();
+    }
+
+
+    /**
+     * Freeze the time left on screen, {@link #resume()} runs on from it.
+     * Safe from any thread: a tick of a count down that is not running stops
+     * itself, racing calls never leave it ticking
+     */
+    public void pause() {
+        this.controller.pause();
+    }
+
+
+    public void resume() {
+        this.controller.resume();
+    }
+
+
+    public boolean isPaused() {
+        return this.controller.isPaused();
+    }
+
+
+    /**
+     * Keeps the elapsed realtime deadline, it survives the process but not a reboot,
+     * just like the saved state
+     */
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        final SavedState savedState = new SavedState(super.onSaveInstanceState());
+        savedState.deadline = this.controller.getSavedDeadline();
+        savedState.timeLeft = this.controller.getEngine().getTimeLeft();
+        savedState.paused = this.controller.isPaused();
+        return savedState;
+    }
+
+
+    @Override
+    protected void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof SavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+        final SavedState savedState = (SavedState) state;
+        super.onRestoreInstanceState(savedState.getSuperState());
+        this.controller.restoreState(savedState.deadline, savedState.timeLeft,
+            savedState.paused);
+    }
+
+
+    @NonNull
+    EasyCountDownController getController() {
+        return this.controller;
+    }
+
+
+    @NonNull
+    EasyCountDownEngine getEngine() {
+        return this.controller.getEngine();
+    }
+
+
+    /**
+     * Tick and draw on the thread of ticker instead of the default one,
+     * ignored while in a group
+     *
+     * @param ticker ticker, null for {@link EasyTicker#getDefault()}
+     */
+    public void setTicker(@Nullable final EasyTicker ticker) {
+        this.ticker = ticker;
+        this.controller.refitTicker();
+    }
+
+
+    @NonNull
+    @Override
+    public EasyTicker getTicker() {
+        final EasyTicker ticker = this.ticker;
+        return ticker != null ? ticker : EasyTicker.getDefault();
+    }
+
+
+    /**
+     * Start count down by date
+     *
+     * @param date date
+     * @deprecated the time of a date is taken as a duration, use {@link #setDeadline(long)}
+     */
+    @Deprecated
+    public void setTime(@NonNull final Date date) {
+        this.setTime(date.getTime());
+    }
+
+
+    /**
+     * Count down to a wall clock time of the server, corrected by
+     * {@link EasyTicker#getServerTime()}. Device clock changes move nothing.
+     *
+     * @param epochMillis epochMillis
+     */
+    public void setDeadline(final long epochMillis) {
+        this.setDeadline(epochMillis, EasyTicker.getServerTime());
+    }
+
+
+    /**
+     * Count down to a wall clock time of serverTime
+     *
+     * @param epochMillis epochMillis
+     * @param serverTime serverTime
+     */
+    public void setDeadline(final long epochMillis, @NonNull final EasyServerTime serverTime) {
+        this.controller.setDeadline(serverTime.toMonotonic(epochMillis));
+    }
+
+
+    /**
+     * Start count down by timeMillis
+     *
+     * @param timeMillis timeMillis
+     */
+    public void setTime(final long timeMillis) {
+        this.controller.setTime(timeMillis);
+    }
+
+
+    /**
+     * Called by the controller before a start
+     */
+    @Override
+    public void onTimeReset() {
+        synchronized (this.tickLock) {
+            this.transitionStartTime = 0L;
+            this.renderer.splitTime(0L, this.segmentValues);
+        }
+        this.postInvalidate();
+    }
+
+
+    /**
+     * Called on the {@link EasyTicker} thread, the controller does the timing
+     *
+     * @param now elapsed realtime
+     * @return the time of the next tick
+     */
+    @Override
+    public long onTick(final long now) {
+        return this.controller.onTick(now);
+    }
+
+
+    /**
+     * Called on the {@link EasyTicker} thread by the controller, only invalidates
+     *
+     * @param timeLeft drawn time left
+     * @param frameTick true if ticking on every frame
+     */
+    @Override
+    public void onTimeChanged(final long timeLeft, final boolean frameTick) {
+        final EasyCountDownEngine engine = this.controller.getEngine();
+        synchronized (this.tickLock) {
+            this.renderer.splitTime(timeLeft, this.tickValues);
+            if (Arrays.equals(this.tickValues, this.segmentValues)) return;
+            final long duration = frameTick
+                                  ? 0L
+                                  : this.renderer.getTransitionDuration(
+                                      engine.getTickInterval());
+            if (duration > 0) {
+                // onDraw animates from the shown values
+                System.arraycopy(this.segmentValues, 0, this.transitionFromValues, 0,
+                    EasyCountDownRenderer.SEGMENT_COUNT);
+                this.transitionDuration = duration;
+                this.transitionStartTime = engine.getClock().now();
+            }
+            System.arraycopy(this.tickValues, 0, this.segmentValues, 0,
+                EasyCountDownRenderer.SEGMENT_COUNT);
+        }
+        this.invalidateOnAnimation();
+    }
+
+
+    private void invalidateOnAnimation() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            this.postInvalidateOnAnimation();
+        } else {
+            this.postInvalidate();
+        }
+    }
+
+
+    /**
+     * Dp to px
+     *
+     * @param dp dp
+     * @return px
+     */
+    private float dp2px(final float dp) {
+        return TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, dp, this.metrics);
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2016 CaMnter yuanyu.camnter@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.camnter.easycountdowntextureview;
+
+import android.support.annotation.NonNull;
+import java.text.DecimalFormatSymbols;
+import java.util.HashMap;
+import java.util.Locale;
+
+/**
+ * Description：EasyDigitCache
+ * Created by：CaMnter
+ *
+ * The two digit texts "00".."99" of a locale, built once and shared by every
+ * count down. The same digits as String.format(locale, "%02d", value), but
+ * a tick can draw them with Canvas.drawText(char[], ...) and allocate nothing.
+ */
+public final class EasyDigitCache {
+
+    public static final int TWO_DIGITS_LIMIT = 100;
+    // enough for Long.MAX_VALUE
+    public static final int MAX_DIGITS = 19;
+
+    private static final HashMap<Locale, EasyDigitCache> CACHES = new HashMap<>();
+
+    private final char zeroDigit;
+    // "00" "01" ... "99"
+    private final char[] twoDigits = new char[TWO_DIGITS_LIMIT * 2];
+
+
+    private EasyDigitCache(@NonNull final Locale locale) {
+        this.zeroDigit = DecimalFormatSymbols.getInstance(locale).getZeroDigit();
+        for (int i = 0; i < TWO_DIGITS_LIMIT; i++) {
+            this.twoDigits[i * 2] = (char) (this.zeroDigit + i / 10);
+            this.twoDigits[i * 2 + 1] = (char) (this.zeroDigit + i % 10);
+        }
+    }
+
+
+    @NonNull
+    public static EasyDigitCache obtain(@NonNull final Locale locale) {
+        synchronized (CACHES) {
+            EasyDigitCache cache = CACHES.get(locale);
+            if (cache == null) {
+                cache = new EasyDigitCache(locale);
+                CACHES.put(locale, cache);
+            }
+            return cache;
+        }
+    }
+
+
+    /**
+     * The shared "00".."99" chars, read only
+     *
+     * @return chars
+     */
+    @NonNull
+    public char[] getTwoDigits() {
+        return this.twoDigits;
+    }
+
+
+    /**
+     * Index of value in {@link #getTwoDigits()}
+     *
+     * @param value 0..99
+     * @return index, the text is two chars long
+     */
+    public int indexOf(final int value) {
+        return value * 2;
+    }
+
+
+    public char getZeroDigit() {
+        return this.zeroDigit;
+    }
+
+
+    /**
+     * Write value with at least two digits to the end of buffer
+     *
+     * @param value value >= 0
+     * @param buffer buffer, at least {@link #MAX_DIGITS} long
+     * @return index of the first digit, the digits end at buffer.length
+     */
+    public int fill(final long value, @NonNull final char[] buffer) {
+        return this.fill(value, 2, buffer);
+    }
+
+
+    /**
+     * Write value with at least minDigits digits to the end of buffer
+     *
+     * @param value value >= 0
+     * @param minDigits 1..{@link #MAX_DIGITS}
+     * @param buffer buffer, at least {@link #MAX_DIGITS} long
+     * @return index of the first digit, the digits end at buffer.length
+     */
+    public int fill(long value, final int minDigits, @NonNull final char[] buffer) {
+        int index = buffer.length;
+        do {
+            buffer[--index] = (char) (this.zeroDigit + (int) (value % 10));
+            value /= 10;
+        } while (value > 0);
+        while (buffer.length - index < minDigits) {
+            buffer[--index] = this.zeroDigit;
+        }
+        return index;
+    }
+
+}
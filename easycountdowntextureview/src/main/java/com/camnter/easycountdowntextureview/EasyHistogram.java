@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2016 CaMnter yuanyu.camnter@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.camnter.easycountdowntextureview;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Description：EasyHistogram
+ * Created by：CaMnter
+ *
+ * Durations in microseconds counted into fixed power-of-two buckets. Bucket
+ * i holds [2^(i-1), 2^i) microseconds, bucket 0 holds 0, the last one every
+ * longer duration. Recording allocates nothing.
+ */
+public final class EasyHistogram {
+
+    // the last bucket starts at 2^22 us, about 4 seconds
+    public static final int BUCKET_COUNT = 24;
+
+    private final long[] buckets = new long[BUCKET_COUNT];
+    private long count;
+    private long sum;
+    private long max;
+
+
+    public synchronized void record(long micros) {
+        if (micros < 0) micros = 0;
+        final int bucket = Math.min(BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(micros));
+        this.buckets[bucket]++;
+        this.count++;
+        this.sum += micros;
+        if (micros > this.max) this.max = micros;
+    }
+
+
+    /**
+     * @param bucket 0..{@link #BUCKET_COUNT} - 1
+     * @return exclusive upper bound in microseconds, Long.MAX_VALUE for the last bucket
+     */
+    public static long getBucketUpperBound(final int bucket) {
+        return bucket == BUCKET_COUNT - 1 ? Long.MAX_VALUE : 1L << bucket;
+    }
+
+
+    public synchronized long getBucketCount(final int bucket) {
+        return this.buckets[bucket];
+    }
+
+
+    public synchronized long getCount() {
+        return this.count;
+    }
+
+
+    public synchronized long getMean() {
+        return this.count == 0 ? 0L : this.sum / this.count;
+    }
+
+
+    public synchronized long getMax() {
+        return this.max;
+    }
+
+
+    /**
+     * Upper bound of the bucket the percentile falls into, the bucket max for the last one
+     *
+     * @param percentile 0..100
+     * @return microseconds
+     */
+    public synchronized long getPercentile(final double percentile) {
+        if (this.count == 0) return 0L;
+        final long rank = (long) Math.ceil(this.count * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += this.buckets[i];
+            if (seen >= rank) return Math.min(this.max, getBucketUpperBound(i));
+        }
+        return this.max;
+    }
+
+
+    public synchronized void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            this.buckets[i] = 0L;
+        }
+        this.count = 0L;
+        this.sum = 0L;
+        this.max = 0L;
+    }
+
+
+    synchronized void copyTo(@NonNull final EasyHistogram target) {
+        synchronized (target) {
+            System.arraycopy(this.buckets, 0, target.buckets, 0, BUCKET_COUNT);
+            target.count = this.count;
+            target.sum = this.sum;
+            target.max = this.max;
+        }
+    }
+
+}
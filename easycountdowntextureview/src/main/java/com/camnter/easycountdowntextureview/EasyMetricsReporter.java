@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2016 CaMnter yuanyu.camnter@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.camnter.easycountdowntextureview;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Message;
+import android.support.annotation.NonNull;
+
+/**
+ * Description：EasyMetricsReporter
+ * Created by：CaMnter
+ *
+ * Hands a snapshot of some {@link EasyRenderMetrics} to a listener on the
+ * main thread every period, to forward it to telemetry. The snapshot object
+ * is reused, copy what should outlive the call.
+ */
+public final class EasyMetricsReporter {
+
+    private final EasyRenderMetrics metrics;
+    private final EasyRenderMetrics snapshot = new EasyRenderMetrics();
+    private final long periodMillis;
+    private final Listener listener;
+    private final ReportHandler reportHandler = new ReportHandler(this);
+
+
+    public interface Listener {
+
+        /**
+         * Called on the main thread every period
+         *
+         * @param snapshot snapshot, reused by the next report
+         */
+        void onMetrics(@NonNull EasyRenderMetrics snapshot);
+
+    }
+
+
+    private static final class ReportHandler extends Handler {
+
+        private static final int WHAT_REPORT = 0x2A;
+
+        private final EasyMetricsReporter reporter;
+
+
+        ReportHandler(@NonNull final EasyMetricsReporter reporter) {
+            super(Looper.getMainLooper());
+            this.reporter = reporter;
+        }
+
+
+        @Override
+        public void dispatchMessage(Message msg) {
+            switch (msg.what) {
+                case WHAT_REPORT:
+                    this.reporter.report();
+                    this.sendEmptyMessageDelayed(WHAT_REPORT, this.reporter.periodMillis);
+                    break;
+            }
+        }
+
+    }
+
+
+    /**
+     * @param metrics a view's metrics or {@link EasyRenderMetrics#getGlobal()}
+     * @param periodMillis periodMillis
+     * @param listener listener
+     */
+    public EasyMetricsReporter(@NonNull final EasyRenderMetrics metrics,
+                               final long periodMillis,
+                               @NonNull final Listener listener) {
+        this.metrics = metrics;
+        this.periodMillis = periodMillis;
+        this.listener = listener;
+    }
+
+
+    public void start() {
+        this.reportHandler.removeMessages(ReportHandler.WHAT_REPORT);
+        this.reportHandler.sendEmptyMessageDelayed(ReportHandler.WHAT_REPORT, this.periodMillis);
+    }
+
+
+    /**
+     * Stop reporting, the listener is no longer referenced by a pending message
+     */
+    public void stop() {
+        this.reportHandler.removeMessages(ReportHandler.WHAT_REPORT);
+    }
+
+
+    private void report() {
+        this.metrics.snapshot(this.snapshot);
+        this.listener.onMetrics(this.snapshot);
+    }
+
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2016 CaMnter yuanyu.camnter@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.camnter.easycountdowntextureview;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Description：EasyRenderMetrics
+ * Created by：CaMnter
+ *
+ * How late and how expensive the ticks of a count down are. Every count down
+ * records into its own metrics and into {@link #getGlobal()}. All durations
+ * are in microseconds, recording allocates nothing.
+ */
+public final class EasyRenderMetrics {
+
+    private static final EasyRenderMetrics GLOBAL = new EasyRenderMetrics(null);
+
+    // also recorded there
+    private final EasyRenderMetrics parent;
+
+    private final EasyHistogram lockCanvasTimes = new EasyHistogram();
+    private final EasyHistogram drawTimes = new EasyHistogram();
+    private final EasyHistogram postTimes = new EasyHistogram();
+    // how much later than scheduled a tick ran
+    private final EasyHistogram tickJitters = new EasyHistogram();
+
+    private long tickCount;
+    // units that were never drawn because a tick came too late
+    private long missedTickCount;
+
+
+    public EasyRenderMetrics() {
+        this(GLOBAL);
+    }
+
+
+    private EasyRenderMetrics(@Nullable final EasyRenderMetrics parent) {
+        this.parent = parent;
+    }
+
+
+    /**
+     * Everything every count down recorded
+     *
+     * @return global metrics
+     */
+    @NonNull
+    public static EasyRenderMetrics getGlobal() {
+        return GLOBAL;
+    }
+
+
+    /**
+     * Time spent in TextureView.lockCanvas
+     */
+    @NonNull
+    public EasyHistogram getLockCanvasTimes() {
+        return this.lockCanvasTimes;
+    }
+
+
+    /**
+     * Time spent drawing the boxes
+     */
+    @NonNull
+    public EasyHistogram getDrawTimes() {
+        return this.drawTimes;
+    }
+
+
+    /**
+     * Time spent in TextureView.unlockCanvasAndPost
+     */
+    @NonNull
+    public EasyHistogram getPostTimes() {
+        return this.postTimes;
+    }
+
+
+    /**
+     * Deviation of each timed tick from its scheduled time, millisecond resolution
+     */
+    @NonNull
+    public EasyHistogram getTickJitters() {
+        return this.tickJitters;
+    }
+
+
+    public synchronized long getTickCount() {
+        return this.tickCount;
+    }
+
+
+    public synchronized long getMissedTickCount() {
+        return this.missedTickCount;
+    }
+
+
+    public void recordLockCanvas(final long micros) {
+        this.lockCanvasTimes.record(micros);
+        if (this.parent != null) this.parent.recordLockCanvas(micros);
+    }
+
+
+    public void recordDraw(final long micros) {
+        this.drawTimes.record(micros);
+        if (this.parent != null) this.parent.recordDraw(micros);
+    }
+
+
+    public void recordPost(final long micros) {
+        this.postTimes.record(micros);
+        if (this.parent != null) this.parent.recordPost(micros);
+    }
+
+
+    /**
+     * @param jitterMicros how much later than scheduled, -1 when nothing was scheduled
+     * @param missedTicks units skipped since the scheduled tick
+     */
+    public void recordTick(final long jitterMicros, final long missedTicks) {
+        if (jitterMicros >= 0) this.tickJitters.record(jitterMicros);
+        synchronized (this) {
+            this.tickCount++;
+            this.missedTickCount += missedTicks;
+        }
+        if (this.parent != null) this.parent.recordTick(jitterMicros, missedTicks);
+    }
+
+
+    /**
+     * Copy everything into target, allocates nothing
+     *
+     * @param target target
+     */
+    public void snapshot(@NonNull final EasyRenderMetrics target) {
+        this.lockCanvasTimes.copyTo(target.lockCanvasTimes);
+        this.drawTimes.copyTo(target.drawTimes);
+        this.postTimes.copyTo(target.postTimes);
+        this.tickJitters.copyTo(target.tickJitters);
+        final long tickCount;
+        final long missedTickCount;
+        synchronized (this) {
+            tickCount = this.tickCount;
+            missedTickCount = this.missedTickCount;
+        }
+        synchronized (target) {
+            target.tickCount = tickCount;
+            target.missedTickCount = missedTickCount;
+        }
+    }
+
+
+    @NonNull
+    public EasyRenderMetrics snapshot() {
+        final EasyRenderMetrics snapshot = new EasyRenderMetrics(null);
+        this.snapshot(snapshot);
+        return snapshot;
+    }
+
+
+    public void reset() {
+        this.lockCanvasTimes.reset();
+        this.drawTimes.reset();
+        this.postTimes.reset();
+        this.tickJitters.reset();
+        synchronized (this) {
+            this.tickCount = 0L;
+            this.missedTickCount = 0L;
+        }
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2016 CaMnter yuanyu.camnter@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.camnter.easycountdowntextureview;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Description：EasyServerTime
+ * Created by：CaMnter
+ *
+ * The wall clock of a server, estimated on a monotonic clock. After
+ * {@link #sync(long, long)} the server time is anchored to the monotonic
+ * clock, so changing the device clock or its time zone moves nothing.
+ * Before the first sync the local wall clock is used.
+ */
+public final class EasyServerTime {
+
+    /**
+     * System.currentTimeMillis()
+     */
+    public static final EasyClock SYSTEM_WALL_CLOCK = new EasyClock() {
+        @Override
+        public long now() {
+            return System.currentTimeMillis();
+        }
+    };
+
+    private final Object lock = new Object();
+
+    private final EasyClock monotonicClock;
+    private final EasyClock wallClock;
+
+    private boolean synced = false;
+    // the server time at monotonicAnchor
+    private long serverAnchor;
+    private long monotonicAnchor;
+
+
+    /**
+     * @param monotonicClock a clock that never jumps, {@link EasyTicker#ELAPSED_REALTIME_CLOCK}
+     */
+    public EasyServerTime(@NonNull final EasyClock monotonicClock) {
+        this(monotonicClock, SYSTEM_WALL_CLOCK);
+    }
+
+
+    /**
+     * @param monotonicClock a clock that never jumps
+     * @param wallClock the local wall clock, only used before the first sync
+     */
+    public EasyServerTime(@NonNull final EasyClock monotonicClock,
+                          @NonNull final EasyClock wallClock) {
+        this.monotonicClock = monotonicClock;
+        this.wallClock = wallClock;
+    }
+
+
+    /**
+     * Sync with a server timestamp that just arrived
+     *
+     * @param serverTimeMillis the server wall clock in the response
+     * @param roundTripMillis time from sending the request to receiving the response
+     */
+    public void sync(final long serverTimeMillis, final long roundTripMillis) {
+        final long receivedAt = this.monotonicClock.now();
+        this.sync(serverTimeMillis, receivedAt - roundTripMillis, receivedAt);
+    }
+
+
+    /**
+     * Sync with a server timestamp, assuming it was taken halfway through the round trip.
+     * A response received before the last synced one is stale and ignored
+     *
+     * @param serverTimeMillis the server wall clock in the response
+     * @param sentAt monotonic time the request was sent
+     * @param receivedAt monotonic time the response was received
+     */
+    public void sync(final long serverTimeMillis, final long sentAt, final long receivedAt) {
+        synchronized (this.lock) {
+            if (this.synced && receivedAt < this.monotonicAnchor) return;
+            this.serverAnchor = serverTimeMillis + Math.max(0L, receivedAt - sentAt) / 2;
+            this.monotonicAnchor = receivedAt;
+            this.synced = true;
+        }
+    }
+
+
+    public boolean isSynced() {
+        synchronized (this.lock) {
+            return this.synced;
+        }
+    }
+
+
+    /**
+     * @return the estimated server wall clock
+     */
+    public long now() {
+        synchronized (this.lock) {
+            if (!this.synced) return this.wallClock.now();
+            return this.serverAnchor + (this.monotonicClock.now() - this.monotonicAnchor);
+        }
+    }
+
+
+    /**
+     * How far the server clock is ahead of the local wall clock right now
+     *
+     * @return skew in millis, 0 before the first sync
+     */
+    public long getSkew() {
+        return this.now() - this.wallClock.now();
+    }
+
+
+    /**
+     * The monotonic time at which the server clock reaches epochMillis
+     *
+     * @param epochMillis server wall clock
+     * @return monotonic time
+     */
+    public long toMonotonic(final long epochMillis) {
+        synchronized (this.lock) {
+            return this.monotonicClock.now() + (epochMillis - this.now());
+        }
+    }
+
+}
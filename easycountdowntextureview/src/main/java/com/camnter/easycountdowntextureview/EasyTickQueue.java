@@ -0,0 +1,242 @@
+/*
+ * Copyright (C) 2016 CaMnter yuanyu.camnter@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.camnter.easycountdowntextureview;
+
+import android.support.annotation.NonNull;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Description：EasyTickQueue
+ * Created by：CaMnter
+ *
+ * The Android-free core of {@link EasyTicker}: a copy-on-write set of
+ * {@link EasyTickable}s with their next tick times. {@link #dispatch(long)}
+ * runs every due tickable in one pass and returns the earliest next tick,
+ * whoever calls it decides how to sleep until then. Adding and removing are
+ * thread-safe, dispatching must always happen on the same thread.
+ */
+public final class EasyTickQueue {
+
+    /**
+     * Returned by {@link #dispatch(long)} when no timed tick is wanted
+     */
+    public static final long NO_TICK = Long.MAX_VALUE;
+
+    private static final Entry[] EMPTY_ENTRIES = new Entry[0];
+
+    private final Object lock = new Object();
+
+    // copy on write, read by the dispatching thread without locking
+    private volatile Entry[] entries = EMPTY_ENTRIES;
+    private volatile int modCount = 0;
+
+    // only written by the dispatching thread
+    private volatile long wakeupCount = 0L;
+    private volatile long spuriousWakeupCount = 0L;
+    private boolean frameRequested = false;
+
+
+    private static final class Entry {
+
+        // a tick only stores its result if add() did not move the tick meanwhile
+        static final AtomicLongFieldUpdater<Entry> NEXT_TICK_TIME
+            = AtomicLongFieldUpdater.newUpdater(Entry.class, "nextTickTime");
+
+        final EasyTickable tickable;
+        volatile long nextTickTime;
+
+
+        Entry(@NonNull final EasyTickable tickable, final long nextTickTime) {
+            this.tickable = tickable;
+            this.nextTickTime = nextTickTime;
+        }
+
+    }
+
+
+    /**
+     * Add a tickable, or move the next tick of an added one
+     *
+     * @param tickable tickable
+     * @param firstTickTime time of the first tick
+     * @return true if the queue was empty before
+     */
+    public boolean add(@NonNull final EasyTickable tickable, final long firstTickTime) {
+        synchronized (this.lock) {
+            final Entry[] oldEntries = this.entries;
+            for (Entry entry : oldEntries) {
+                if (entry.tickable == tickable) {
+                    entry.nextTickTime = firstTickTime;
+                    this.modCount++;
+                    return false;
+                }
+            }
+            final Entry[] newEntries = new Entry[oldEntries.length + 1];
+            System.arraycopy(oldEntries, 0, newEntries, 0, oldEntries.length);
+            newEntries[oldEntries.length] = new Entry(tickable, firstTickTime);
+            this.entries = newEntries;
+            this.modCount++;
+            return oldEntries.length == 0;
+        }
+    }
+
+
+    /**
+     * Remove a tickable
+     *
+     * @param tickable tickable
+     * @return true if the queue became empty
+     */
+    public boolean remove(@NonNull final EasyTickable tickable) {
+        synchronized (this.lock) {
+            final Entry[] oldEntries = this.entries;
+            int index = -1;
+            for (int i = 0; i < oldEntries.length; i++) {
+                if (oldEntries[i].tickable == tickable) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) return false;
+            this.modCount++;
+            if (oldEntries.length == 1) {
+                this.entries = EMPTY_ENTRIES;
+                return true;
+            }
+            final Entry[] newEntries = new Entry[oldEntries.length - 1];
+            System.arraycopy(oldEntries, 0, newEntries, 0, index);
+            System.arraycopy(oldEntries, index + 1, newEntries, index,
+                oldEntries.length - index - 1);
+            this.entries = newEntries;
+            return false;
+        }
+    }
+
+
+    /**
+     * Remove an entry whose tick returned {@link EasyTickable#TICK_STOP}, unless
+     * it was added again since
+     */
+    private void removeStopped(@NonNull final Entry entry) {
+        synchronized (this.lock) {
+            if (entry.nextTickTime != EasyTickable.TICK_STOP) return;
+            this.remove(entry.tickable);
+        }
+    }
+
+
+    public boolean contains(@NonNull final EasyTickable tickable) {
+        for (Entry entry : this.entries) {
+            if (entry.tickable == tickable) return true;
+        }
+        return false;
+    }
+
+
+    public int size() {
+        return this.entries.length;
+    }
+
+
+    /**
+     * Changes on every add or remove
+     *
+     * @return modification count
+     */
+    public int getModCount() {
+        return this.modCount;
+    }
+
+
+    /**
+     * Run every due tickable in one pass
+     *
+     * @param now current time
+     * @return the earliest next tick time, or {@link #NO_TICK}
+     */
+    public long dispatch(final long now) {
+        final Entry[] entries = this.entries;
+        long earliestTickTime = NO_TICK;
+        boolean ticked = false;
+        boolean nextFrame = false;
+        for (Entry entry : entries) {
+            long nextTickTime = entry.nextTickTime;
+            // TICK_NEXT_FRAME is always due
+            if (nextTickTime <= now) {
+                ticked = true;
+                final long dueTickTime = nextTickTime;
+                nextTickTime = entry.tickable.onTick(now);
+                if (!Entry.NEXT_TICK_TIME.compareAndSet(entry, dueTickTime, nextTickTime)) {
+                    // added again during onTick, keep that tick
+                    nextTickTime = entry.nextTickTime;
+                } else if (nextTickTime == EasyTickable.TICK_STOP) {
+                    this.removeStopped(entry);
+                    continue;
+                }
+            }
+            if (nextTickTime == EasyTickable.TICK_NEXT_FRAME) {
+                nextFrame = true;
+            } else {
+                earliestTickTime = Math.min(earliestTickTime, nextTickTime);
+            }
+        }
+        this.wakeupCount++;
+        if (!ticked) this.spuriousWakeupCount++;
+        this.frameRequested = nextFrame;
+        return earliestTickTime;
+    }
+
+
+    /**
+     * The earliest next tick of everything in the queue now, also refreshes
+     * {@link #isFrameRequested()}. For tickables added during a dispatch.
+     *
+     * @return the earliest next tick time, or {@link #NO_TICK}
+     */
+    public long getEarliestTickTime() {
+        long earliestTickTime = NO_TICK;
+        boolean nextFrame = false;
+        for (Entry entry : this.entries) {
+            final long nextTickTime = entry.nextTickTime;
+            if (nextTickTime == EasyTickable.TICK_NEXT_FRAME) {
+                nextFrame = true;
+            } else if (nextTickTime != EasyTickable.TICK_STOP) {
+                earliestTickTime = Math.min(earliestTickTime, nextTickTime);
+            }
+        }
+        this.frameRequested = nextFrame;
+        return earliestTickTime;
+    }
+
+
+    /**
+     * @return true if a tickable wants a tick on the next display frame
+     */
+    public boolean isFrameRequested() {
+        return this.frameRequested;
+    }
+
+
+    public long getWakeupCount() {
+        return this.wakeupCount;
+    }
+
+
+    public long getSpuriousWakeupCount() {
+        return this.spuriousWakeupCount;
+    }
+
+}
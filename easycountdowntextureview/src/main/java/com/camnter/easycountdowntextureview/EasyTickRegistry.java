@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2016 CaMnter yuanyu.camnter@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.camnter.easycountdowntextureview;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Description：EasyTickRegistry
+ * Created by：CaMnter
+ *
+ * Where a count down registers to be ticked: an {@link EasyTicker}, or the
+ * {@link EasyCountDownGroup} it belongs to.
+ */
+interface EasyTickRegistry {
+
+    /**
+     * Register a tickable, its first tick happens as soon as possible
+     *
+     * @param tickable tickable
+     */
+    void register(@NonNull EasyTickable tickable);
+
+    /**
+     * Unregister a tickable
+     *
+     * @param tickable tickable
+     */
+    void unregister(@NonNull EasyTickable tickable);
+
+}
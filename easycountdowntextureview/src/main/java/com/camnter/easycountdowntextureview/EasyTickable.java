@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2016 CaMnter yuanyu.camnter@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.camnter.easycountdowntextureview;
+
+/**
+ * Description：EasyTickable
+ * Created by：CaMnter
+ *
+ * Something that is driven by a shared {@link EasyTicker}.
+ */
+public interface EasyTickable {
+
+    /**
+     * Returned by {@link #onTick(long)} when no more ticks are wanted
+     */
+    long TICK_STOP = -1L;
+
+    /**
+     * Returned by {@link #onTick(long)} to tick again on the next display frame
+     */
+    long TICK_NEXT_FRAME = -2L;
+
+
+    /**
+     * Called on the ticker thread when this tickable is due
+     *
+     * @param now current time of the ticker clock
+     * @return the time of the next wanted tick, {@link #TICK_NEXT_FRAME} or {@link #TICK_STOP}
+     */
+    long onTick(long now);
+
+}
@@ -0,0 +1,376 @@
+/*
+ * Copyright (C) 2016 CaMnter yuanyu.camnter@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.camnter.easycountdowntextureview;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Message;
+import android.os.Process;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.view.Choreographer;
+
+/**
+ * Description：EasyTicker
+ * Created by：CaMnter
+ *
+ * A process-wide ticker shared by every count down. One scheduler thread
+ * wakes up once for the earliest due {@link EasyTickable} and drives all
+ * due tickables of its {@link EasyTickQueue} in the same pass. The thread is reference counted: it is
+ * started by the first {@link #register(EasyTickable)} and quit after the
+ * last {@link #unregister(EasyTickable)}.
+ *
+ * Tickables that return {@link EasyTickable#TICK_NEXT_FRAME} are driven by
+ * Choreographer frame callbacks of the ticker thread, aligned with vsync.
+ *
+ * Count downs draw on the thread of their ticker. By default that is one thread
+ * named "EasyCountDownTicker" at display priority. An app can name the thread and
+ * lower its priority, or run the ticker on a Looper of its own, for every count
+ * down with {@link #setDefault(EasyTicker)} or per view with setTicker.
+ */
+public final class EasyTicker implements EasyTickRegistry {
+
+    public static final String DEFAULT_THREAD_NAME = "EasyCountDownTicker";
+    // it draws, like the render thread of the app
+    public static final int DEFAULT_THREAD_PRIORITY = Process.THREAD_PRIORITY_DISPLAY;
+
+    // before Choreographer
+    private static final long FALLBACK_FRAME_DELAY = 16L;
+
+    /**
+     * The clock of every ticker, SystemClock.elapsedRealtime()
+     */
+    public static final EasyClock ELAPSED_REALTIME_CLOCK = new EasyClock() {
+        @Override
+        public long now() {
+            return SystemClock.elapsedRealtime();
+        }
+    };
+
+    private static volatile EasyTicker defaultTicker = new EasyTicker();
+
+    private static final EasyServerTime SERVER_TIME = new EasyServerTime(ELAPSED_REALTIME_CLOCK);
+
+    private final Object lock = new Object();
+    // a retiring ticker thread never dispatches next to its replacement
+    private final Object dispatchLock = new Object();
+
+    private final EasyTickQueue tickQueue = new EasyTickQueue();
+
+    // the Looper of the app, or a thread of its own
+    @Nullable private final Looper looper;
+    private final String threadName;
+    private final int threadPriority;
+
+    private HandlerThread tickerThread;
+    private volatile TickHandler tickHandler;
+
+
+    private static final class TickHandler extends Handler {
+
+        private static final int WHAT_TICK = 0x27;
+        private static final int WHAT_FRAME = 0x28;
+
+        private final EasyTicker ticker;
+        private FrameTicker frameTicker;
+        // elapsed realtime of the pending WHAT_TICK, changed under the lock of the ticker
+        private volatile long scheduledTickTime = EasyTickQueue.NO_TICK;
+
+
+        TickHandler(@NonNull final Looper looper, @NonNull final EasyTicker ticker) {
+            super(looper);
+            this.ticker = ticker;
+        }
+
+
+        @Override
+        public void dispatchMessage(Message msg) {
+            switch (msg.what) {
+                case WHAT_TICK:
+                    this.scheduledTickTime = EasyTickQueue.NO_TICK;
+                    this.ticker.dispatchTick(this);
+                    break;
+                case WHAT_FRAME:
+                    this.ticker.dispatchTick(this);
+                    break;
+            }
+        }
+
+
+        void scheduleTick(final long delay) {
+            this.removeMessages(WHAT_TICK);
+            this.scheduledTickTime = SystemClock.elapsedRealtime() + Math.max(0L, delay);
+            if (delay <= 0) {
+                this.sendEmptyMessage(WHAT_TICK);
+            } else {
+                this.sendEmptyMessageDelayed(WHAT_TICK, delay);
+            }
+        }
+
+
+        /**
+         * Only called on the ticker thread
+         */
+        void scheduleFrame() {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+                if (this.frameTicker == null) {
+                    this.frameTicker = new FrameTicker(this);
+                }
+                this.frameTicker.postFrame();
+            } else if (!this.hasMessages(WHAT_FRAME)) {
+                this.sendEmptyMessageDelayed(WHAT_FRAME, FALLBACK_FRAME_DELAY);
+            }
+        }
+
+    }
+
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private static final class FrameTicker implements Choreographer.FrameCallback {
+
+        private final TickHandler tickHandler;
+        // the Choreographer of the ticker thread
+        private final Choreographer choreographer = Choreographer.getInstance();
+        private boolean framePosted = false;
+
+
+        FrameTicker(@NonNull final TickHandler tickHandler) {
+            this.tickHandler = tickHandler;
+        }
+
+
+        void postFrame() {
+            if (this.framePosted) return;
+            this.framePosted = true;
+            this.choreographer.postFrameCallback(this);
+        }
+
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            this.framePosted = false;
+            this.tickHandler.ticker.dispatchTick(this.tickHandler);
+        }
+
+    }
+
+
+    /**
+     * A ticker on its own thread, named {@link #DEFAULT_THREAD_NAME} at
+     * {@link #DEFAULT_THREAD_PRIORITY}
+     */
+    public EasyTicker() {
+        this(DEFAULT_THREAD_NAME, DEFAULT_THREAD_PRIORITY);
+    }
+
+
+    /**
+     * A ticker on its own thread, started by the first tickable and quit after the last
+     *
+     * @param threadName threadName, shown by profilers
+     * @param threadPriority android.os.Process.THREAD_PRIORITY_*
+     */
+    public EasyTicker(@NonNull final String threadName, final int threadPriority) {
+        this.looper = null;
+        this.threadName = threadName;
+        this.threadPriority = threadPriority;
+    }
+
+
+    /**
+     * A ticker on a Looper of the app, a HandlerThread or a render thread for
+     * example. The ticker never quits it
+     *
+     * @param looper looper
+     */
+    public EasyTicker(@NonNull final Looper looper) {
+        this.looper = looper;
+        this.threadName = looper.getThread().getName();
+        this.threadPriority = DEFAULT_THREAD_PRIORITY;
+    }
+
+
+    @NonNull
+    public static EasyTicker getDefault() {
+        return defaultTicker;
+    }
+
+
+    /**
+     * The ticker of every count down without a ticker of its own. Count downs already
+     * ticking stay on the old ticker until they stop
+     *
+     * @param ticker ticker
+     */
+    public static void setDefault(@NonNull final EasyTicker ticker) {
+        defaultTicker = ticker;
+    }
+
+
+    /**
+     * The server time of the process, used by setDeadline(long) of every count down.
+     * Sync it whenever a server timestamp arrives.
+     *
+     * @return server time
+     */
+    @NonNull
+    public static EasyServerTime getServerTime() {
+        return SERVER_TIME;
+    }
+
+
+    /**
+     * Register a tickable, its first tick happens as soon as possible
+     *
+     * @param tickable tickable
+     */
+    @Override
+    public void register(@NonNull final EasyTickable tickable) {
+        this.register(tickable, SystemClock.elapsedRealtime());
+    }
+
+
+    /**
+     * Register a tickable
+     *
+     * @param tickable tickable
+     * @param firstTickTime elapsed realtime of the first tick
+     */
+    public void register(@NonNull final EasyTickable tickable, final long firstTickTime) {
+        synchronized (this.lock) {
+            this.tickQueue.add(tickable, firstTickTime);
+            if (this.tickHandler == null) {
+                Looper looper = this.looper;
+                if (looper == null) {
+                    this.tickerThread = new HandlerThread(this.threadName, this.threadPriority);
+                    this.tickerThread.start();
+                    looper = this.tickerThread.getLooper();
+                }
+                this.tickHandler = new TickHandler(looper, this);
+            }
+            // a tick already scheduled before firstTickTime picks it up
+            if (firstTickTime < this.tickHandler.scheduledTickTime) {
+                this.tickHandler.scheduleTick(firstTickTime - SystemClock.elapsedRealtime());
+            }
+        }
+    }
+
+
+    /**
+     * Unregister a tickable, the ticker thread quits after the last one
+     *
+     * @param tickable tickable
+     */
+    @Override
+    public void unregister(@NonNull final EasyTickable tickable) {
+        synchronized (this.lock) {
+            if (this.tickQueue.remove(tickable)) {
+                this.quitTickerThread();
+            }
+        }
+    }
+
+
+    public boolean isRegistered(@NonNull final EasyTickable tickable) {
+        return this.tickQueue.contains(tickable);
+    }
+
+
+    public int getRegisteredCount() {
+        return this.tickQueue.size();
+    }
+
+
+    /**
+     * How many times the ticker thread woke up
+     *
+     * @return wakeup count
+     */
+    public long getWakeupCount() {
+        return this.tickQueue.getWakeupCount();
+    }
+
+
+    /**
+     * How many times the ticker thread woke up but no tickable was due
+     *
+     * @return spurious wakeup count
+     */
+    public long getSpuriousWakeupCount() {
+        return this.tickQueue.getSpuriousWakeupCount();
+    }
+
+
+    private void quitTickerThread() {
+        if (this.tickHandler == null) return;
+        this.tickHandler.removeCallbacksAndMessages(null);
+        this.tickHandler = null;
+        // a Looper of the app keeps running
+        if (this.tickerThread == null) return;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            this.tickerThread.quitSafely();
+        } else {
+            this.tickerThread.quit();
+        }
+        this.tickerThread = null;
+    }
+
+
+    /**
+     * @return the name of the ticker thread, shown by profilers
+     */
+    @NonNull
+    public String getThreadName() {
+        return this.threadName;
+    }
+
+
+    /**
+     * Run every due tickable in one pass, then sleep until the earliest next tick
+     *
+     * @param handler the handler of the current ticker thread
+     */
+    private void dispatchTick(@NonNull final TickHandler handler) {
+        synchronized (this.dispatchLock) {
+            // quit, or replaced by a new ticker thread
+            if (handler != this.tickHandler) return;
+            final int modCount = this.tickQueue.getModCount();
+            long earliestTickTime = this.tickQueue.dispatch(SystemClock.elapsedRealtime());
+            synchronized (this.lock) {
+                // quit or replaced during this pass
+                if (handler != this.tickHandler) return;
+                // the last tickables stopped themselves
+                if (this.tickQueue.size() == 0) {
+                    this.quitTickerThread();
+                    return;
+                }
+                // registered during this pass
+                if (this.tickQueue.getModCount() != modCount) {
+                    earliestTickTime = this.tickQueue.getEarliestTickTime();
+                }
+                if (this.tickQueue.isFrameRequested()) handler.scheduleFrame();
+                if (earliestTickTime == EasyTickQueue.NO_TICK) return;
+                handler.scheduleTick(earliestTickTime - SystemClock.elapsedRealtime());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2016 CaMnter yuanyu.camnter@gmail.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.camnter.easycountdowntextureview;
+
+/**
+ * Description：EasyTime
+ * Created by：CaMnter
+ *
+ * Splits a duration into days, hours, minutes, seconds and millis with plain
+ * arithmetic. No Calendar, no time zone, no allocation, safe from any thread.
+ * Every method treats a negative duration as zero.
+ */
+public final class EasyTime {
+
+    public static final long ONE_SECOND = 1000L;
+    public static final long ONE_MINUTE = 60 * ONE_SECOND;
+    public static final long ONE_HOUR = 60 * ONE_MINUTE;
+    public static final long ONE_DAY = 24 * ONE_HOUR;
+
+
+    private EasyTime() {
+    }
+
+
+    public static long days(final long millis) {
+        return Math.max(0L, millis) / ONE_DAY;
+    }
+
+
+    /**
+     * @param millis duration
+     * @return 0..23
+     */
+    public static int hoursOfDay(final long millis) {
+        return (int) (Math.max(0L, millis) % ONE_DAY / ONE_HOUR);
+    }
+
+
+    /**
+     * Hours without days split off, 49 hours stay 49
+     *
+     * @param millis duration
+     * @return total hours
+     */
+    public static long totalHours(final long millis) {
+        return Math.max(0L, millis) / ONE_HOUR;
+    }
+
+
+    /**
+     * @param millis duration
+     * @return 0..59
+     */
+    public static int minutesOfHour(final long millis) {
+        return (int) (Math.max(0L, millis) % ONE_HOUR / ONE_MINUTE);
+    }
+
+
+    /**
+     * @param millis duration
+     * @return 0..59
+     */
+    public static int secondsOfMinute(final long millis) {
+        return (int) (Math.max(0L, millis) % ONE_MINUTE / ONE_SECOND);
+    }
+
+
+    /**
+     * @param millis duration
+     * @return 0..999
+     */
+    public static int millisOfSecond(final long millis) {
+        return (int) (Math.max(0L, millis) % ONE_SECOND);
+    }
+
+
+    /**
+     * Round up to whole seconds, a count down shows 00:00:01 until the last
+     * second is really over
+     *
+     * @param millis duration
+     * @return whole seconds
+     */
+    public static long ceilSeconds(final long millis) {
+        return (Math.max(0L, millis) + ONE_SECOND - 1) / ONE_SECOND;
+    }
+
+
+    /**
+     * Round up to whole units, a count down of minutes shows 00:01 until the
+     * last minute is really over
+     *
+     * @param millis duration
+     * @param unit unit > 0, {@link #ONE_MINUTE} for example
+     * @return millis of whole units
+     */
+    public static long ceilUnits(final long millis, final long unit) {
+        return (Math.max(0L, millis) + unit - 1) / unit * unit;
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.camnter.easycountdowntextureview.demo;
+
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.app.AppCompatActivity;
+import com.camnter.easycountdowntextureview.EasyCountDownBoardView;
+
+/**
+ * Description：BoardActivity
+ * Created by：CaMnter
+ */
+
+public class BoardActivity extends AppCompatActivity
+    implements EasyCountDownBoardView.OnEntryCompletedListener {
+
+    private static final int COLUMNS = 4;
+    private static final int ROWS = 8;
+    private static final long ENDING_SOON = 10 * 1000L;
+
+    private EasyCountDownBoardView boardView;
+
+
+    @Override protected void onCreate(@Nullable Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        this.setContentView(R.layout.activity_board);
+        this.boardView = (EasyCountDownBoardView) this.findViewById(R.id.board_view);
+        this.boardView.setOnEntryCompletedListener(this);
+
+        final float density = this.getResources().getDisplayMetrics().density;
+        final int cellWidth = (int) (84 * density);
+        final int cellHeight = (int) (32 * density);
+        final int margin = (int) (16 * density);
+        final long now = SystemClock.elapsedRealtime();
+        for (int i = 0; i < COLUMNS * ROWS; i++) {
+            final long timeLeft = (i + 1) * 3 * 1000L;
+            this.boardView.addEntry(now + timeLeft,
+                margin + i % COLUMNS * cellWidth,
+                margin + i / COLUMNS * cellHeight,
+                timeLeft <= ENDING_SOON ? R.style.BoardCountDownEndingSoon : 0);
+        }
+    }
+
+
+    /**
+     * Start the entry over in the ending soon style
+     */
+    @Override public void onEntryCompleted(@NonNull EasyCountDownBoardView.Entry entry) {
+        this.boardView.removeEntry(entry);
+        this.boardView.addEntry(SystemClock.elapsedRealtime() + ENDING_SOON,
+            entry.getX(), entry.getY(), R.style.BoardCountDownEndingSoon);
+    }
+
+}
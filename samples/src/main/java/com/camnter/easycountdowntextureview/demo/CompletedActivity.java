@@ -4,6 +4,7 @@ import android.os.Bundle;
 import android.support.annotation.Nullable;
 import android.support.v7.app.AppCompatActivity;
 import android.widget.Toast;
+import com.camnter.easycountdowntextureview.EasyCountDownGroup;
 import com.camnter.easycountdowntextureview.EasyCountDownTextureView;
 
 /**
@@ -26,13 +27,17 @@ public class CompletedActivity extends AppCompatActivity
             = (EasyCountDownTextureView) this.findViewById(R.id.completed_white_countdown_text);
         whiteCountDownTextureView.setTime(WHITE_DURATION_TIME);
         whiteCountDownTextureView.setEasyCountDownListener(this);
-        whiteCountDownTextureView.start();
 
         EasyCountDownTextureView yellowCountDownTextureView
             = (EasyCountDownTextureView) this.findViewById(R.id.completed_yellow_countdown_text);
         yellowCountDownTextureView.setTime(YELLOW_DURATION_TIME);
         yellowCountDownTextureView.setEasyCountDownListener(this);
-        yellowCountDownTextureView.start();
+
+        // both flip in the same frame
+        EasyCountDownGroup countDownGroup = new EasyCountDownGroup();
+        countDownGroup.add(whiteCountDownTextureView);
+        countDownGroup.add(yellowCountDownTextureView);
+        countDownGroup.start();
     }
 
 
@@ -0,0 +1,53 @@
+package com.camnter.easycountdowntextureview.demo;
+
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.support.annotation.Nullable;
+import android.support.v7.app.AppCompatActivity;
+import com.camnter.easycountdowntextureview.EasyCountDownBinder;
+import com.camnter.easycountdowntextureview.demo.adapter.ListAdapter;
+import com.camnter.easyrecyclerview.widget.EasyRecyclerView;
+
+/**
+ * Description：ListActivity
+ * Created by：CaMnter
+ */
+
+public class ListActivity extends AppCompatActivity {
+
+    private static final int ITEM_COUNT = 10000;
+
+    private final EasyCountDownBinder countDownBinder = new EasyCountDownBinder();
+
+
+    @Override protected void onCreate(@Nullable Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        this.setContentView(R.layout.activity_list);
+        final long now = SystemClock.elapsedRealtime();
+        final long[] deadlines = new long[ITEM_COUNT];
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            deadlines[i] = now + (i + 1) * 7 * 1000L;
+        }
+        EasyRecyclerView listRecyclerView = (EasyRecyclerView) this.findViewById(R.id.list_rv);
+        listRecyclerView.setAdapter(new ListAdapter(deadlines, this.countDownBinder));
+    }
+
+
+    @Override protected void onResume() {
+        super.onResume();
+        this.countDownBinder.resume();
+    }
+
+
+    @Override protected void onPause() {
+        super.onPause();
+        this.countDownBinder.pause();
+    }
+
+
+    @Override protected void onDestroy() {
+        super.onDestroy();
+        this.countDownBinder.unbindAll();
+    }
+
+}
@@ -40,6 +40,8 @@ public class MainActivity extends AppCompatActivity {
         this.classes.add(ShowActivity.class);
         this.classes.add(SettingActivity.class);
         this.classes.add(CompletedActivity.class);
+        this.classes.add(ListActivity.class);
+        this.classes.add(BoardActivity.class);
 
         this.mainAdapter = new MainAdapter();
         this.mainAdapter.setList(this.classes);
@@ -0,0 +1,46 @@
+package com.camnter.easycountdowntextureview.demo.adapter;
+
+import android.widget.TextView;
+import com.camnter.easycountdowntextureview.EasyCountDownBinder;
+import com.camnter.easycountdowntextureview.demo.R;
+import com.camnter.easyrecyclerview.adapter.EasyRecyclerViewAdapter;
+import com.camnter.easyrecyclerview.holder.EasyRecyclerViewHolder;
+
+/**
+ * Description：ListAdapter
+ * Created by：CaMnter
+ *
+ * Every row only has a deadline, one binder ticks the rows on screen.
+ */
+public class ListAdapter extends EasyRecyclerViewAdapter {
+
+    private final long[] deadlines;
+    private final EasyCountDownBinder countDownBinder;
+
+
+    public ListAdapter(long[] deadlines, EasyCountDownBinder countDownBinder) {
+        this.deadlines = deadlines;
+        this.countDownBinder = countDownBinder;
+    }
+
+
+    @Override public int[] getItemLayouts() {
+        return new int[] { R.layout.item_list };
+    }
+
+
+    @Override public void onBindRecycleViewHolder(EasyRecyclerViewHolder viewHolder, int position) {
+        TextView countDownTextView = viewHolder.findViewById(R.id.list_item_count_down_tv);
+        this.countDownBinder.bind(countDownTextView, this.deadlines[position]);
+    }
+
+
+    @Override public int getItemCount() {
+        return this.deadlines.length;
+    }
+
+
+    @Override public int getRecycleViewItemType(int position) {
+        return 0;
+    }
+}